@@ -0,0 +1,109 @@
+package com.chess.engine.benchmarks;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.chess_pieces.*;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+
+import static com.chess.engine.board.Move.FactoryMove;
+
+// fixed corpus shared by the benchmarks: three middlegames reached by replaying opening lines
+// and three endgames set up piece by piece
+public final class BenchmarkPositions {
+
+    private static final String[][] OPENING_LINES = {
+            // Ruy Lopez, closed
+            {"e2e4", "e7e5", "g1f3", "b8c6", "f1b5", "a7a6", "b5a4", "g8f6", "e1g1", "f8e7", "f1e1", "b7b5", "a4b3", "d7d6", "c2c3", "e8g8"},
+            // Queen's Gambit Declined
+            {"d2d4", "d7d5", "c2c4", "e7e6", "b1c3", "g8f6", "c1g5", "f8e7", "e2e3", "e8g8", "g1f3", "b8d7", "a1c1", "c7c6"},
+            // Sicilian Najdorf, English attack
+            {"e2e4", "c7c5", "g1f3", "d7d6", "d2d4", "c5d4", "f3d4", "g8f6", "b1c3", "a7a6", "c1e3", "e7e5", "d4b3", "c8e6", "f2f3", "f8e7"}
+    };
+
+    public static final List<ChessBoard> POSITIONS = createPositions();
+
+    private BenchmarkPositions() {
+        throw new RuntimeException("You can't instantiate me!");
+    }
+
+    private static List<ChessBoard> createPositions() {
+        final ImmutableList.Builder<ChessBoard> positions = ImmutableList.builder();
+        for (final String[] line : OPENING_LINES) {
+            positions.add(replay(line));
+        }
+        positions.add(rookEndgame());
+        positions.add(minorPieceEndgame());
+        positions.add(queenEndgame());
+        return positions.build();
+    }
+
+    private static ChessBoard replay(final String[] line) {
+        ChessBoard board = ChessBoard.createInitialBoard();
+        for (final String move : line) {
+            final Move candidate = FactoryMove.createMove(board,
+                    BoardUtils.getCoordinateAtPosition(move.substring(0, 2)),
+                    BoardUtils.getCoordinateAtPosition(move.substring(2, 4)));
+            final MoveTransition transition = board.currentPlayer().makeMove(candidate);
+            if (!transition.getMoveStatus().isDone()) {
+                throw new IllegalStateException("Corpus move " + move + " is not legal");
+            }
+            board = transition.getTransitionBoard();
+        }
+        return board;
+    }
+
+    private static int at(final String position) {
+        return BoardUtils.getCoordinateAtPosition(position);
+    }
+
+    private static ChessBoard rookEndgame() {
+        final ChessBoard.Builder builder = new ChessBoard.Builder();
+        builder.setPiece(King.of(at("g1"), Alliance.WHITE, false));
+        builder.setPiece(Rook.of(at("d1"), Alliance.WHITE, false));
+        for (final String pawn : new String[]{"a4", "b3", "f2", "g2", "h2"}) {
+            builder.setPiece(Pawn.of(at(pawn), Alliance.WHITE, pawn.charAt(1) == '2'));
+        }
+        builder.setPiece(King.of(at("g8"), Alliance.BLACK, false));
+        builder.setPiece(Rook.of(at("e8"), Alliance.BLACK, false));
+        for (final String pawn : new String[]{"a5", "b6", "f7", "g7", "h7"}) {
+            builder.setPiece(Pawn.of(at(pawn), Alliance.BLACK, pawn.charAt(1) == '7'));
+        }
+        builder.setMoveMaker(Alliance.WHITE);
+        return builder.build();
+    }
+
+    private static ChessBoard minorPieceEndgame() {
+        final ChessBoard.Builder builder = new ChessBoard.Builder();
+        builder.setPiece(King.of(at("e4"), Alliance.WHITE, false));
+        builder.setPiece(Knight.of(at("f3"), Alliance.WHITE, false));
+        for (final String pawn : new String[]{"d4", "e3", "g4"}) {
+            builder.setPiece(Pawn.of(at(pawn), Alliance.WHITE, false));
+        }
+        builder.setPiece(King.of(at("e6"), Alliance.BLACK, false));
+        builder.setPiece(Bishop.of(at("d6"), Alliance.BLACK, false));
+        for (final String pawn : new String[]{"a6", "h6", "f7"}) {
+            builder.setPiece(Pawn.of(at(pawn), Alliance.BLACK, pawn.charAt(1) == '7'));
+        }
+        builder.setMoveMaker(Alliance.WHITE);
+        return builder.build();
+    }
+
+    private static ChessBoard queenEndgame() {
+        final ChessBoard.Builder builder = new ChessBoard.Builder();
+        builder.setPiece(King.of(at("h2"), Alliance.WHITE, false));
+        builder.setPiece(Queen.of(at("d4"), Alliance.WHITE, false));
+        builder.setPiece(Pawn.of(at("g3"), Alliance.WHITE, false));
+        builder.setPiece(Pawn.of(at("h4"), Alliance.WHITE, false));
+        builder.setPiece(King.of(at("g7"), Alliance.BLACK, false));
+        builder.setPiece(Queen.of(at("b1"), Alliance.BLACK, false));
+        builder.setPiece(Pawn.of(at("f6"), Alliance.BLACK, false));
+        builder.setPiece(Pawn.of(at("h6"), Alliance.BLACK, false));
+        builder.setMoveMaker(Alliance.BLACK);
+        return builder.build();
+    }
+}
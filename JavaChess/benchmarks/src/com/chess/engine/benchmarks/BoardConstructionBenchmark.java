@@ -0,0 +1,41 @@
+package com.chess.engine.benchmarks;
+
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.chess_pieces.Piece;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardConstructionBenchmark {
+
+    @Param({"0", "1", "2", "3", "4", "5"})
+    public int position;
+
+    private ChessBoard.Builder builder;
+
+    @Setup
+    public void setUp() {
+        final ChessBoard board = BenchmarkPositions.POSITIONS.get(this.position);
+        this.builder = new ChessBoard.Builder();
+        for (final Piece piece : board.getAllPieces()) {
+            this.builder.setPiece(piece);
+        }
+        this.builder.setMoveMaker(board.currentPlayer().getAlliance());
+    }
+
+    @Benchmark
+    public ChessBoard createInitialBoard() {
+        return ChessBoard.createInitialBoard();
+    }
+
+    @Benchmark
+    public ChessBoard builderBuild() {
+        return this.builder.build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.chess.engine.benchmarks;
+
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.Move;
+import com.chess.engine.player.Player;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.chess.engine.board.Move.FactoryMove;
+
+// every legal move of the side to move in the corpus position, one invocation covers them all
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveExecutionBenchmark {
+
+    @Param({"0", "1", "2", "3", "4", "5"})
+    public int position;
+
+    private ChessBoard board;
+    private Player player;
+    private List<Move> moves;
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.POSITIONS.get(this.position);
+        this.player = this.board.currentPlayer();
+        this.moves = this.player.getLegalMoves().stream()
+                .filter(move -> this.player.makeMove(move).getMoveStatus().isDone())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void execute(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(move.execute());
+        }
+    }
+
+    @Benchmark
+    public void makeMove(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(this.player.makeMove(move));
+        }
+    }
+
+    @Benchmark
+    public void createMove(final Blackhole blackhole) {
+        for (final Move move : this.moves) {
+            blackhole.consume(FactoryMove.createMove(this.board, move.getCurrentCoordinate(), move.getDestinationCoordinate()));
+        }
+    }
+}
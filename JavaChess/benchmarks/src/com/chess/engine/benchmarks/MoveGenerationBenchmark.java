@@ -0,0 +1,57 @@
+package com.chess.engine.benchmarks;
+
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.MoveList;
+import com.chess.engine.chess_pieces.Piece;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// calculateLegalMoves of every piece of one type (both sides) over the corpus position,
+// as Move objects and as packed moves appended to a reused MoveList
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoveGenerationBenchmark {
+
+    @Param({"0", "1", "2", "3", "4", "5"})
+    public int position;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public PieceType pieceType;
+
+    private ChessBoard board;
+    private List<Piece> pieces;
+    private final MoveList moveList = new MoveList();
+
+    @Setup
+    public void setUp() {
+        this.board = BenchmarkPositions.POSITIONS.get(this.position);
+        this.pieces = this.board.getAllPieces().stream()
+                .filter(piece -> piece.getPieceType() == this.pieceType)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void calculateLegalMoves(final Blackhole blackhole) {
+        for (final Piece piece : this.pieces) {
+            blackhole.consume(piece.calculateLegalMoves(this.board));
+        }
+    }
+
+    @Benchmark
+    public int calculatePackedMoves() {
+        this.moveList.clear();
+        for (final Piece piece : this.pieces) {
+            piece.calculateLegalMoves(this.board, this.moveList);
+        }
+        return this.moveList.size();
+    }
+}
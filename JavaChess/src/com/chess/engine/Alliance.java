@@ -26,6 +26,11 @@ public enum Alliance {
                                    final BlackPlayer blackPlayer) {
             return whitePlayer;
         }
+
+        @Override
+        public Alliance opposite() {
+            return BLACK;
+        }
         @Override
         public String toString() {
             return "WHITE";
@@ -53,6 +58,11 @@ public enum Alliance {
                                    final BlackPlayer blackPlayer) {
             return blackPlayer;
         }
+
+        @Override
+        public Alliance opposite() {
+            return WHITE;
+        }
         @Override
         public String toString() {
             return "BLACK";
@@ -64,6 +74,7 @@ public enum Alliance {
     public abstract boolean isBlack();
 
     public abstract Player choosePlayer(WhitePlayer whitePlayer, BlackPlayer blackPlayer);
+    public abstract Alliance opposite();
 
     private static final int UP_DIRECTION = -1;
     private static final int DOWN_DIRECTION = 1;
@@ -1,9 +1,23 @@
 package com.chess.engine;
 
+import com.chess.engine.analysis.BatchAnalysis;
 import com.chess.engine.board.ChessBoard;
+import com.chess.engine.perft.Perft;
+
+import java.io.IOException;
+import java.util.Arrays;
 
 public class JChess_control {
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+
+        if (args.length > 0 && args[0].equals("perft")) {
+            Perft.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("analyse")) {
+            BatchAnalysis.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
 
         // TEST
         ChessBoard board = ChessBoard.createInitialBoard();
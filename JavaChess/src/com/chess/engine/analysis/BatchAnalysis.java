@@ -0,0 +1,247 @@
+package com.chess.engine.analysis;
+
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.FactoryMove;
+import com.chess.engine.pgn.FenParser;
+import com.chess.engine.pgn.SanNotation;
+import com.chess.engine.player.ai.AlphaBetaSearch;
+import com.chess.engine.player.ai.PieceSquareEvaluator;
+import com.chess.engine.player.ai.SearchResult;
+import com.chess.engine.player.ai.TranspositionTable;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// analyses every position of an EPD (or one FEN per line) file and writes one EPD line per position, in input
+// order, with the search's best move (bm), score (ce), depth (acd) and nodes (acn). A reader thread parses
+// lines and hands them to a fixed pool of searchers, one per thread with its own transposition table; the
+// calling thread writes the results in order. The queue between them is bounded, so a slow writer holds back
+// the reader and memory stays flat for files of any length.
+public final class BatchAnalysis {
+
+    // results waiting for the writer per search thread, enough to keep every thread busy
+    private static final int PENDING_PER_THREAD = 4;
+
+    private final int threads;
+    private final int maxDepth;
+    private final long timeLimitMillis;
+    private final long hashSizeInMegabytes;
+
+    // a time limit of 0 searches every position to maxDepth; the hash size is per thread
+    public BatchAnalysis(final int threads,
+                         final int maxDepth,
+                         final long timeLimitMillis,
+                         final long hashSizeInMegabytes) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Batch analysis needs at least 1 thread, got " + threads);
+        }
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Batch analysis needs a depth of at least 1, got " + maxDepth);
+        }
+        this.threads = threads;
+        this.maxDepth = maxDepth;
+        this.timeLimitMillis = timeLimitMillis;
+        this.hashSizeInMegabytes = hashSizeInMegabytes;
+    }
+
+    public Summary run(final Path input, final Path output) throws IOException, InterruptedException {
+        final long start = System.nanoTime();
+        final AtomicLong nodes = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        final ThreadLocal<Analyser> analysers = ThreadLocal.withInitial(() -> new Analyser(nodes, errors));
+        final BlockingQueue<Future<String>> pending = new ArrayBlockingQueue<>(this.threads * PENDING_PER_THREAD);
+        // marks the end of the input for the writer
+        final Future<String> endOfInput = CompletableFuture.completedFuture(null);
+        final IOException[] readFailure = new IOException[1];
+
+        final ExecutorService pool = Executors.newFixedThreadPool(this.threads, runnable -> {
+            final Thread thread = new Thread(runnable, "batch-analysis");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Thread reader = new Thread(() -> {
+            try (BufferedReader lines = Files.newBufferedReader(input, StandardCharsets.ISO_8859_1)) {
+                String line;
+                while ((line = lines.readLine()) != null) {
+                    if (line.trim().isEmpty()) {
+                        continue;
+                    }
+                    final String position = line;
+                    pending.put(pool.submit(() -> analysers.get().analyse(position)));
+                }
+            } catch (final IOException e) {
+                readFailure[0] = e;
+            } catch (final InterruptedException e) {
+                // the writer gave up, nobody is waiting for more input
+                return;
+            }
+            try {
+                pending.put(endOfInput);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "batch-analysis-reader");
+
+        long positions = 0;
+        reader.start();
+        try (BufferedWriter writer = Files.newBufferedWriter(output, StandardCharsets.ISO_8859_1)) {
+            Future<String> result;
+            while ((result = pending.take()) != endOfInput) {
+                writer.write(result.get());
+                writer.newLine();
+                positions++;
+            }
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Analysis failed", e.getCause());
+        } finally {
+            reader.interrupt();
+            pool.shutdownNow();
+            reader.join();
+        }
+        if (readFailure[0] != null) {
+            throw readFailure[0];
+        }
+        return new Summary(positions, errors.get(), nodes.get(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // the search state of one pool thread
+    private final class Analyser {
+
+        private final FenParser parser = new FenParser();
+        private final AlphaBetaSearch search = new AlphaBetaSearch(
+                new TranspositionTable(BatchAnalysis.this.hashSizeInMegabytes), new PieceSquareEvaluator());
+        private final StringBuilder builder = new StringBuilder(128);
+        private final AtomicLong nodes;
+        private final AtomicLong errors;
+
+        private Analyser(final AtomicLong nodes, final AtomicLong errors) {
+            this.nodes = nodes;
+            this.errors = errors;
+        }
+
+        private String analyse(final String line) {
+            this.builder.setLength(0);
+            final ChessBoard board;
+            try {
+                board = this.parser.parse(line).toChessBoard();
+            } catch (final IllegalArgumentException e) {
+                // not a position (or not a legal one), the line goes back out with the reason
+                this.errors.incrementAndGet();
+                this.builder.append(line.trim()).append(" c0 \"").append(e.getMessage()).append("\";");
+                return this.builder.toString();
+            }
+            // anything failing from here on is a bug, it ends the run through the writer's ExecutionException
+            final SearchResult result = this.search.search(board, BatchAnalysis.this.maxDepth,
+                    BatchAnalysis.this.timeLimitMillis);
+            this.nodes.addAndGet(result.getNodes());
+            appendResult(line, board, result);
+            return this.builder.toString();
+        }
+
+        // the position as given, then the analysis opcodes and the id of the input line if it had one
+        private void appendResult(final String line, final ChessBoard board, final SearchResult result) {
+            this.builder.append(line, 0, this.parser.getEnd());
+            final Move bestMove = result.getBestMove();
+            if (bestMove != FactoryMove.getNullMove()) {
+                this.builder.append(" bm ");
+                SanNotation.encode(board, bestMove, this.builder);
+                this.builder.append(';');
+            }
+            this.builder.append(" ce ").append(result.getScore()).append(';')
+                    .append(" acd ").append(result.getDepth()).append(';')
+                    .append(" acn ").append(result.getNodes()).append(';');
+            final int id = line.indexOf("id \"", this.parser.getEnd());
+            if (id >= 0) {
+                final int idEnd = line.indexOf('"', id + 4);
+                this.builder.append(' ').append(line, id, idEnd >= 0 ? idEnd + 1 : line.length()).append(';');
+            }
+        }
+    }
+
+    public static final class Summary {
+
+        private final long positions;
+        private final long errors;
+        private final long nodes;
+        private final long elapsedMillis;
+
+        Summary(final long positions, final long errors, final long nodes, final long elapsedMillis) {
+            this.positions = positions;
+            this.errors = errors;
+            this.nodes = nodes;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public long getPositions() {
+            return this.positions;
+        }
+        // lines that were no valid position, written back with a c0 comment
+        public long getErrors() {
+            return this.errors;
+        }
+        public long getNodes() {
+            return this.nodes;
+        }
+        public long getElapsedMillis() {
+            return this.elapsedMillis;
+        }
+        public double getPositionsPerSecond() {
+            return this.elapsedMillis > 0 ? this.positions * 1000.0 / this.elapsedMillis : 0;
+        }
+
+        @Override
+        public String toString() {
+            return "Positions: " + this.positions + " (" + this.errors + " invalid)\n" +
+                    "Time: " + this.elapsedMillis + " ms\n" +
+                    String.format("Positions/sec: %.1f%n", getPositionsPerSecond()) +
+                    "Nodes/sec: " + (this.elapsedMillis > 0 ? this.nodes * 1000 / this.elapsedMillis : 0);
+        }
+    }
+
+    // analyse <input> <output> [--depth <n>] [--time <ms>] [--threads <n>] [--hash <MB per thread>]
+    public static void main(final String[] args) throws IOException, InterruptedException {
+        if (args.length < 2) {
+            System.out.println("usage: analyse <input> <output> [--depth <n>] [--time <ms>] [--threads <n>] [--hash <MB>]");
+            return;
+        }
+        int depth = 8;
+        long timeLimit = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long hashSize = 16;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--depth":
+                    depth = Integer.parseInt(args[++i]);
+                    break;
+                case "--time":
+                    timeLimit = Long.parseLong(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--hash":
+                    hashSize = Long.parseLong(args[++i]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown analyse option " + args[i]);
+            }
+        }
+        final Summary summary = new BatchAnalysis(threads, depth, timeLimit, hashSize)
+                .run(Paths.get(args[0]), Paths.get(args[1]));
+        System.out.println(summary);
+    }
+}
@@ -0,0 +1,288 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.chess_pieces.*;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+// bitboard view of a position: one 64 bit set per piece type and alliance plus occupancy masks
+public final class BitBoard {
+
+    public static final int NO_EN_PASSANT = -1;
+
+    public static final int WHITE_KING_SIDE_CASTLE = 1;
+    public static final int WHITE_QUEEN_SIDE_CASTLE = 2;
+    public static final int BLACK_KING_SIDE_CASTLE = 4;
+    public static final int BLACK_QUEEN_SIDE_CASTLE = 8;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final int NUM_PIECE_TYPES = PIECE_TYPES.length;
+    private static final Alliance[] ALLIANCES = Alliance.values();
+
+    private final long[] pieceBitboards;
+    private final long whiteOccupancy;
+    private final long blackOccupancy;
+    private final Alliance nextMoveMaker;
+    private final int castlingRights;
+    private final int enPassantTile;
+
+    private BitBoard(final long[] pieceBitboards,
+                     final Alliance nextMoveMaker,
+                     final int castlingRights,
+                     final int enPassantTile) {
+        this.pieceBitboards = pieceBitboards;
+        this.whiteOccupancy = occupancyOf(pieceBitboards, Alliance.WHITE);
+        this.blackOccupancy = occupancyOf(pieceBitboards, Alliance.BLACK);
+        this.nextMoveMaker = nextMoveMaker;
+        this.castlingRights = castlingRights;
+        this.enPassantTile = enPassantTile;
+    }
+
+    static BitBoard create(final Collection<Piece> whitePieces,
+                           final Collection<Piece> blackPieces,
+                           final Alliance nextMoveMaker,
+                           final Pawn enPassantPawn) {
+        final long[] pieceBitboards = new long[Alliance.values().length * NUM_PIECE_TYPES];
+        int castlingRights = 0;
+
+        for (final Piece piece : whitePieces) {
+            pieceBitboards[index(piece.getPieceType(), Alliance.WHITE)] |= BoardUtils.tileMask(piece.getPiecePosition());
+        }
+        for (final Piece piece : blackPieces) {
+            pieceBitboards[index(piece.getPieceType(), Alliance.BLACK)] |= BoardUtils.tileMask(piece.getPiecePosition());
+        }
+        castlingRights |= castlingRight(whitePieces, 60, 63, WHITE_KING_SIDE_CASTLE);
+        castlingRights |= castlingRight(whitePieces, 60, 56, WHITE_QUEEN_SIDE_CASTLE);
+        castlingRights |= castlingRight(blackPieces, 4, 7, BLACK_KING_SIDE_CASTLE);
+        castlingRights |= castlingRight(blackPieces, 4, 0, BLACK_QUEEN_SIDE_CASTLE);
+
+        // the en passant target is the tile the pawn jumped over
+        final int enPassantTile = enPassantPawn != null ?
+                enPassantPawn.getPiecePosition() - enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW :
+                NO_EN_PASSANT;
+
+        return new BitBoard(pieceBitboards, nextMoveMaker, castlingRights, enPassantTile);
+    }
+
+    public static BitBoard create(final long[] pieceBitboards,
+                                  final Alliance nextMoveMaker,
+                                  final int castlingRights,
+                                  final int enPassantTile) {
+        if (pieceBitboards.length != Alliance.values().length * NUM_PIECE_TYPES) {
+            throw new IllegalArgumentException("Expected one bitboard per piece type and alliance!");
+        }
+        return new BitBoard(pieceBitboards.clone(), nextMoveMaker, castlingRights, enPassantTile);
+    }
+
+    // king and rook still unmoved on their home tiles
+    private static int castlingRight(final Collection<Piece> pieces,
+                                     final int kingTile,
+                                     final int rookTile,
+                                     final int castlingRight) {
+        boolean kingReady = false;
+        boolean rookReady = false;
+        for (final Piece piece : pieces) {
+            if (piece.isFirstMove() && piece.getPieceType().isKing() && piece.getPiecePosition() == kingTile) {
+                kingReady = true;
+            } else if (piece.isFirstMove() && piece.getPieceType().isRook() && piece.getPiecePosition() == rookTile) {
+                rookReady = true;
+            }
+        }
+        return kingReady && rookReady ? castlingRight : 0;
+    }
+
+    private static long occupancyOf(final long[] pieceBitboards, final Alliance alliance) {
+        long occupancy = 0L;
+        for (final PieceType pieceType : PIECE_TYPES) {
+            occupancy |= pieceBitboards[index(pieceType, alliance)];
+        }
+        return occupancy;
+    }
+
+    static int index(final PieceType pieceType, final Alliance alliance) {
+        return alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal();
+    }
+
+    // the array itself, callers in this package must not modify it
+    long[] getPieceBitboards() {
+        return this.pieceBitboards;
+    }
+    public long getPieces(final PieceType pieceType, final Alliance alliance) {
+        return this.pieceBitboards[index(pieceType, alliance)];
+    }
+    public long getAlliancePieces(final Alliance alliance) {
+        return alliance.isWhite() ? this.whiteOccupancy : this.blackOccupancy;
+    }
+    public long getOccupancy() {
+        return this.whiteOccupancy | this.blackOccupancy;
+    }
+    public long getEmptyTiles() {
+        return ~getOccupancy();
+    }
+    public Alliance getNextMoveMaker() {
+        return this.nextMoveMaker;
+    }
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+    public boolean canCastle(final int castlingRight) {
+        return (this.castlingRights & castlingRight) != 0;
+    }
+    public int getEnPassantTile() {
+        return this.enPassantTile;
+    }
+    public int getKingTile(final Alliance alliance) {
+        return BoardUtils.firstTile(getPieces(PieceType.KING, alliance));
+    }
+
+    // both alliances' pieces attacking the tile
+    public long attackersOf(final int tileCoordinate) {
+        final long occupancy = getOccupancy();
+        return attackersOf(this.pieceBitboards, tileCoordinate, Alliance.WHITE.ordinal(), occupancy) |
+                attackersOf(this.pieceBitboards, tileCoordinate, Alliance.BLACK.ordinal(), occupancy);
+    }
+    public long attackersOf(final int tileCoordinate, final Alliance attacker) {
+        return attackersOf(this.pieceBitboards, tileCoordinate, attacker.ordinal(), getOccupancy());
+    }
+    public boolean isSquareAttacked(final int tileCoordinate, final Alliance attacker) {
+        return attackersOf(tileCoordinate, attacker) != 0;
+    }
+
+    // every piece of attacker (an alliance ordinal) attacking the tile, straight from the attack tables:
+    // pieceBitboards laid out as index(), occupancy decides what blocks the sliders
+    static long attackersOf(final long[] pieceBitboards, final int tileCoordinate, final int attacker, final long occupancy) {
+        final int base = attacker * NUM_PIECE_TYPES;
+        final long queens = pieceBitboards[base + PieceType.QUEEN.ordinal()];
+        // a pawn of the defending side standing on the tile would attack exactly the attacking pawns
+        return (LeaperAttacks.pawnAttacks(tileCoordinate, ALLIANCES[1 - attacker]) & pieceBitboards[base + PieceType.PAWN.ordinal()]) |
+                (LeaperAttacks.knightAttacks(tileCoordinate) & pieceBitboards[base + PieceType.KNIGHT.ordinal()]) |
+                (LeaperAttacks.kingAttacks(tileCoordinate) & pieceBitboards[base + PieceType.KING.ordinal()]) |
+                (MagicAttacks.bishopAttacks(tileCoordinate, occupancy) & (pieceBitboards[base + PieceType.BISHOP.ordinal()] | queens)) |
+                (MagicAttacks.rookAttacks(tileCoordinate, occupancy) & (pieceBitboards[base + PieceType.ROOK.ordinal()] | queens));
+    }
+
+    public boolean isTileOccupied(final int tileCoordinate) {
+        return (getOccupancy() & BoardUtils.tileMask(tileCoordinate)) != 0;
+    }
+
+    // null if the tile is empty
+    public Alliance getAllianceOn(final int tileCoordinate) {
+        final long mask = BoardUtils.tileMask(tileCoordinate);
+        if ((this.whiteOccupancy & mask) != 0) {
+            return Alliance.WHITE;
+        }
+        return (this.blackOccupancy & mask) != 0 ? Alliance.BLACK : null;
+    }
+
+    // null if the tile is empty
+    public PieceType getPieceTypeOn(final int tileCoordinate) {
+        final Alliance alliance = getAllianceOn(tileCoordinate);
+        if (alliance == null) {
+            return null;
+        }
+        final long mask = BoardUtils.tileMask(tileCoordinate);
+        for (final PieceType pieceType : PIECE_TYPES) {
+            if ((getPieces(pieceType, alliance) & mask) != 0) {
+                return pieceType;
+            }
+        }
+        throw new IllegalStateException("Occupancy out of sync at tile " + tileCoordinate);
+    }
+
+    public ChessBoard toChessBoard() {
+        return toChessBoard(0, 1);
+    }
+
+    public ChessBoard toChessBoard(final int halfMoveClock, final int fullMoveNumber) {
+        final ChessBoard.Builder builder = new ChessBoard.Builder();
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PIECE_TYPES) {
+                long pieces = getPieces(pieceType, alliance);
+                while (pieces != 0) {
+                    final int tile = BoardUtils.firstTile(pieces);
+                    pieces &= pieces - 1;
+                    final Piece piece = createPiece(pieceType, alliance, tile);
+                    builder.setPiece(piece);
+                    if (tile == enPassantPawnTile() && pieceType == PieceType.PAWN) {
+                        builder.setEnPassantPawn((Pawn) piece);
+                    }
+                }
+            }
+        }
+        builder.setMoveMaker(this.nextMoveMaker);
+        builder.setHalfMoveClock(halfMoveClock);
+        builder.setFullMoveNumber(fullMoveNumber);
+        return builder.build();
+    }
+
+    private int enPassantPawnTile() {
+        if (this.enPassantTile == NO_EN_PASSANT) {
+            return NO_EN_PASSANT;
+        }
+        // the pawn that just jumped belongs to the side which is not moving now
+        return this.enPassantTile - this.nextMoveMaker.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    private Piece createPiece(final PieceType pieceType, final Alliance alliance, final int tile) {
+        switch (pieceType) {
+            case PAWN:
+                final boolean onHomeRow = alliance.isWhite() ? BoardUtils.SEVENTH_ROW[tile] : BoardUtils.SECOND_ROW[tile];
+                return Pawn.of(tile, alliance, onHomeRow);
+            case KNIGHT:
+                return Knight.of(tile, alliance);
+            case BISHOP:
+                return Bishop.of(tile, alliance);
+            case ROOK:
+                return Rook.of(tile, alliance, isUnmovedRook(alliance, tile));
+            case QUEEN:
+                return Queen.of(tile, alliance);
+            case KING:
+                return King.of(tile, alliance, alliance.isWhite() ?
+                        canCastle(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE) :
+                        canCastle(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE));
+            default:
+                throw new IllegalArgumentException("Unknown piece type " + pieceType);
+        }
+    }
+
+    private boolean isUnmovedRook(final Alliance alliance, final int tile) {
+        if (alliance.isWhite()) {
+            return (tile == 63 && canCastle(WHITE_KING_SIDE_CASTLE)) ||
+                    (tile == 56 && canCastle(WHITE_QUEEN_SIDE_CASTLE));
+        }
+        return (tile == 7 && canCastle(BLACK_KING_SIDE_CASTLE)) ||
+                (tile == 0 && canCastle(BLACK_QUEEN_SIDE_CASTLE));
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final BitBoard other = (BitBoard) o;
+        return this.castlingRights == other.castlingRights &&
+                this.enPassantTile == other.enPassantTile &&
+                this.nextMoveMaker == other.nextMoveMaker &&
+                Arrays.equals(this.pieceBitboards, other.pieceBitboards);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Arrays.hashCode(this.pieceBitboards) + 7 * this.castlingRights + this.enPassantTile;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            final PieceType pieceType = getPieceTypeOn(i);
+            final String tileText = pieceType == null ? "-" :
+                    getAllianceOn(i).isBlack() ? pieceType.toString().toLowerCase() : pieceType.toString();
+            builder.append(String.format("%3s", tileText));
+            if ((i + 1) % BoardUtils.NUM_TILES_PER_ROW == 0)
+                builder.append("\n");
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,128 @@
+package com.chess.engine.board;
+
+import com.chess.engine.chess_pieces.Piece;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+import com.chess.engine.chess_pieces.Rook;
+
+import static com.chess.engine.board.Move.*;
+
+// moves packed into 16 bits of an int for the search board: source tile, destination tile and 4 flag bits
+public final class BitMove {
+
+    public static final int NULL_MOVE = 0;
+
+    public static final int QUIET = 0;
+    public static final int PAWN_JUMP = 1;
+    public static final int KING_SIDE_CASTLE = 2;
+    public static final int QUEEN_SIDE_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    // promotions set bit 3, bit 2 marks a capture and the two low bits pick the piece
+    public static final int KNIGHT_PROMOTION = 8;
+    public static final int BISHOP_PROMOTION = 9;
+    public static final int ROOK_PROMOTION = 10;
+    public static final int QUEEN_PROMOTION = 11;
+    public static final int KNIGHT_PROMOTION_CAPTURE = 12;
+    public static final int BISHOP_PROMOTION_CAPTURE = 13;
+    public static final int ROOK_PROMOTION_CAPTURE = 14;
+    public static final int QUEEN_PROMOTION_CAPTURE = 15;
+
+    private static final PieceType[] PROMOTION_TYPES = {PieceType.KNIGHT, PieceType.BISHOP, PieceType.ROOK, PieceType.QUEEN};
+
+    private BitMove() {
+        throw new RuntimeException("You can't instantiate me!");
+    }
+
+    public static int create(final int currentCoordinate, final int destinationCoordinate, final int flags) {
+        return currentCoordinate | destinationCoordinate << 6 | flags << 12;
+    }
+
+    public static int getCurrentCoordinate(final int move) {
+        return move & 0x3F;
+    }
+    public static int getDestinationCoordinate(final int move) {
+        return (move >>> 6) & 0x3F;
+    }
+    public static int getFlags(final int move) {
+        return (move >>> 12) & 0xF;
+    }
+    public static boolean isAttack(final int move) {
+        return (getFlags(move) & CAPTURE) != 0;
+    }
+    public static boolean isPromotion(final int move) {
+        return (getFlags(move) & 8) != 0;
+    }
+    public static boolean isCastlingMove(final int move) {
+        final int flags = getFlags(move);
+        return flags == KING_SIDE_CASTLE || flags == QUEEN_SIDE_CASTLE;
+    }
+    // null unless the move promotes
+    public static PieceType getPromotionType(final int move) {
+        return isPromotion(move) ? PROMOTION_TYPES[getFlags(move) & 3] : null;
+    }
+
+    // packs one of the object moves of a ChessBoard, so a game can be replayed on a SearchBoard
+    public static int of(final Move move) {
+        final int flags;
+        if (move instanceof PawnPromotion) {
+            final int piece = ((PawnPromotion) move).getPromotionType().ordinal() - PieceType.KNIGHT.ordinal();
+            flags = (KNIGHT_PROMOTION + piece) | (move.isAttack() ? CAPTURE : 0);
+        } else if (move instanceof KingSideCastleMove) {
+            flags = KING_SIDE_CASTLE;
+        } else if (move instanceof QueenSideCastleMove) {
+            flags = QUEEN_SIDE_CASTLE;
+        } else if (move instanceof PawnJump) {
+            flags = PAWN_JUMP;
+        } else if (move instanceof PawnEnPassantMove) {
+            flags = EN_PASSANT;
+        } else if (move.isAttack()) {
+            flags = CAPTURE;
+        } else {
+            flags = QUIET;
+        }
+        return create(move.getCurrentCoordinate(), move.getDestinationCoordinate(), flags);
+    }
+
+    // object view of a packed move generated on the board, the inverse of of(Move)
+    public static Move toMove(final ChessBoard board, final int move) {
+        final int currentCoordinate = getCurrentCoordinate(move);
+        final int destinationCoordinate = getDestinationCoordinate(move);
+        final Piece movedPiece = board.getTile(currentCoordinate).getPiece();
+        final int flags = getFlags(move);
+        switch (flags) {
+            case PAWN_JUMP:
+                return new PawnJump(board, movedPiece, destinationCoordinate);
+            case KING_SIDE_CASTLE:
+                return new KingSideCastleMove(board, movedPiece, destinationCoordinate,
+                        (Rook) board.getTile(currentCoordinate + 3).getPiece(), currentCoordinate + 3, currentCoordinate + 1);
+            case QUEEN_SIDE_CASTLE:
+                return new QueenSideCastleMove(board, movedPiece, destinationCoordinate,
+                        (Rook) board.getTile(currentCoordinate - 4).getPiece(), currentCoordinate - 4, currentCoordinate - 1);
+            case EN_PASSANT:
+                return new PawnEnPassantMove(board, movedPiece, destinationCoordinate, board.getEnPassantPawn());
+            default:
+                break;
+        }
+        final Piece attackedPiece = board.getTile(destinationCoordinate).getPiece();
+        final boolean isPawn = movedPiece.getPieceType() == PieceType.PAWN;
+        final Move baseMove;
+        if (isAttack(move)) {
+            baseMove = isPawn ? new PawnAttackMove(board, movedPiece, destinationCoordinate, attackedPiece) :
+                    new AttackMove(board, movedPiece, destinationCoordinate, attackedPiece);
+        } else {
+            baseMove = isPawn ? new PawnMove(board, movedPiece, destinationCoordinate) :
+                    new MajorMove(board, movedPiece, destinationCoordinate);
+        }
+        return isPromotion(move) ? new PawnPromotion(baseMove, getPromotionType(move)) : baseMove;
+    }
+
+    // coordinate notation, e.g. "e2e4" or "e7e8q"
+    public static String toString(final int move) {
+        if (move == NULL_MOVE) {
+            return "0000";
+        }
+        final String text = BoardUtils.getPositionAtCoordinate(getCurrentCoordinate(move)) +
+                BoardUtils.getPositionAtCoordinate(getDestinationCoordinate(move));
+        return isPromotion(move) ? text + getPromotionType(move).toString().toLowerCase() : text;
+    }
+}
@@ -10,6 +10,7 @@ public class BoardUtils {
     public static final boolean[] SEVENTH_ROW = initRow(48);
     public static final int NUM_TILES = 64;
     public static final int NUM_TILES_PER_ROW = 8;
+    public static final String[] ALGEBRAIC_NOTATION = initAlgebraicNotation();
 
 
     private BoardUtils(){
@@ -32,6 +33,36 @@ public class BoardUtils {
         } while (rowNumber % NUM_TILES_PER_ROW != 0);
         return row;
     }
+    private static String[] initAlgebraicNotation() {
+        final String[] notation = new String[NUM_TILES];
+        for (int i = 0; i < NUM_TILES; i++) {
+            notation[i] = "" + (char) ('a' + i % NUM_TILES_PER_ROW) + (NUM_TILES_PER_ROW - i / NUM_TILES_PER_ROW);
+        }
+        return notation;
+    }
+    public static String getPositionAtCoordinate(final int coordinate) {
+        return ALGEBRAIC_NOTATION[coordinate];
+    }
+    // -1 for anything that is not a tile name like "e4"
+    public static int getCoordinateAtPosition(final String position) {
+        if (position.length() != 2) {
+            return -1;
+        }
+        final int column = position.charAt(0) - 'a';
+        final int row = position.charAt(1) - '1';
+        if (column < 0 || column >= NUM_TILES_PER_ROW || row < 0 || row >= NUM_TILES_PER_ROW) {
+            return -1;
+        }
+        return (NUM_TILES_PER_ROW - 1 - row) * NUM_TILES_PER_ROW + column;
+    }
+    // bitboards: bit i <=> tile coordinate i (0 is the top left black rook corner)
+    public static long tileMask(final int coordinate) {
+        return 1L << coordinate;
+    }
+    // index of the lowest set bit, callers must make sure the bitboard is not empty
+    public static int firstTile(final long bitboard) {
+        return Long.numberOfTrailingZeros(bitboard);
+    }
     // check if current position is on the board
     public static boolean isValidTileCoordinate(final int coordinate) {
         return coordinate >= 0 && coordinate < NUM_TILES;
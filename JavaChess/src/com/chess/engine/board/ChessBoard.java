@@ -2,9 +2,12 @@ package com.chess.engine.board;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.chess_pieces.*;
+import com.chess.engine.chess_pieces.Piece.PieceType;
 import com.chess.engine.player.BlackPlayer;
 import com.chess.engine.player.Player;
 import com.chess.engine.player.WhitePlayer;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
@@ -17,35 +20,65 @@ import static com.chess.engine.board.Move.*;
 
 public class ChessBoard {
 
-    private final List<Tile> gameBoard;
+    private final Tile[] gameBoard;
     private final Collection<Piece> whitePieces;
     private final Collection<Piece> blackPieces;
-
-    private final WhitePlayer whitePlayer;
-    private final BlackPlayer blackPlayer;
-    private final Player currentPlayer;
+    private final BitBoard bitBoard;
+    private final long zobristKey;
+    private final int pieceSquareScore;
+    private final int gamePhase;
+
+    // moves and players are built on first use, most boards (display, intermediate positions) never need them.
+    // Suppliers.memoize makes sure a board shared between threads still builds each of them once
+    private final Supplier<Collection<Move>> whiteStandardLegalMoves;
+    private final Supplier<Collection<Move>> blackStandardLegalMoves;
+    private final Supplier<WhitePlayer> whitePlayer;
+    private final Supplier<BlackPlayer> blackPlayer;
+    private final Alliance nextMoveMaker;
     private final Pawn enPassantPawn;
     private final Move transitionMove;
+    private final int halfMoveClock;
+    private final int fullMoveNumber;
 
     public ChessBoard(final Builder builder) {
         this.gameBoard = createGameBoard(builder);
-        this.whitePieces = calculateActivePieces(this.gameBoard, Alliance.WHITE);
-        this.blackPieces = calculateActivePieces(this.gameBoard, Alliance.BLACK);
+        this.whitePieces = calculateActivePieces(builder.boardConfig, Alliance.WHITE);
+        this.blackPieces = calculateActivePieces(builder.boardConfig, Alliance.BLACK);
         this.enPassantPawn = builder.enPassantPawn;
-        final Collection<Move> whiteStandardLegalMoves = calculateLegalMoves(this.whitePieces);
-        final Collection<Move> blackStandardLegalMoves = calculateLegalMoves(this.blackPieces);
-
-        this.whitePlayer = new WhitePlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.blackPlayer = new BlackPlayer(this, whiteStandardLegalMoves, blackStandardLegalMoves);
-        this.currentPlayer = builder.nextMoveMaker.choosePlayer(this.whitePlayer, this.blackPlayer);
+        this.bitBoard = BitBoard.create(this.whitePieces, this.blackPieces, builder.nextMoveMaker, this.enPassantPawn);
+        // boards produced by a move only XOR in what the move changed
+        this.zobristKey = builder.transitionMove != null ?
+                Zobrist.updateKey(builder.transitionMove, this.bitBoard) : Zobrist.calculateKey(this.bitBoard);
+        this.pieceSquareScore = builder.transitionMove != null ?
+                PieceSquareTables.updateScore(builder.transitionMove, this.bitBoard) :
+                PieceSquareTables.calculateScore(this.bitBoard);
+        this.gamePhase = builder.transitionMove != null ?
+                PieceSquareTables.updatePhase(builder.transitionMove, this.bitBoard) :
+                PieceSquareTables.calculatePhase(this.bitBoard);
+        this.whiteStandardLegalMoves = Suppliers.memoize(() -> calculateLegalMoves(this.whitePieces));
+        this.blackStandardLegalMoves = Suppliers.memoize(() -> calculateLegalMoves(this.blackPieces));
+
+        this.whitePlayer = Suppliers.memoize(() -> new WhitePlayer(this, this.whiteStandardLegalMoves.get()));
+        this.blackPlayer = Suppliers.memoize(() -> new BlackPlayer(this, this.blackStandardLegalMoves.get()));
+        this.nextMoveMaker = builder.nextMoveMaker;
         this.transitionMove = builder.transitionMove != null ? builder.transitionMove : FactoryMove.getNullMove();
+        // a board produced by a move counts on from the board the move was played on
+        if (builder.transitionMove != null) {
+            final ChessBoard previous = builder.transitionMove.getBoard();
+            this.halfMoveClock = builder.transitionMove.isAttack() ||
+                    builder.transitionMove.getMovedPiece().getPieceType() == PieceType.PAWN ? 0 : previous.halfMoveClock + 1;
+            this.fullMoveNumber = previous.fullMoveNumber + (previous.nextMoveMaker.isBlack() ? 1 : 0);
+        } else {
+            this.halfMoveClock = builder.halfMoveClock;
+            this.fullMoveNumber = builder.fullMoveNumber;
+        }
     }
 
     @Override
     public String toString(){
         final StringBuilder builder = new StringBuilder();
         for(int i = 0; i < BoardUtils.NUM_TILES; i++){
-            final String tileText = this.gameBoard.get(i).toString();
+            final String tileText = this.gameBoard[i].toString();
             builder.append(String.format("%3s", tileText));
             if ((i+1) % BoardUtils.NUM_TILES_PER_ROW == 0)
                 builder.append("\n");
@@ -54,57 +87,66 @@ public class ChessBoard {
     }
 
     private Collection<Move> calculateLegalMoves(final Collection<Piece> pieces) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        pieces.stream()
-                .map(piece -> piece.calculateLegalMoves(this))
-                .forEach(legalMoves::addAll);
-
+        final MoveList moveList = new MoveList();
+        calculateLegalMoves(pieces, moveList);
+        final Move[] legalMoves = new Move[moveList.size()];
+        for (int i = 0; i < legalMoves.length; i++) {
+            legalMoves[i] = BitMove.toMove(this, moveList.get(i));
+        }
         return ImmutableList.copyOf(legalMoves);
     }
 
-    private static Collection<Piece> calculateActivePieces(final List<Tile> gameBoard, final Alliance alliance) {
-
-        final List<Piece> activePieces = gameBoard.stream()
-                .filter(Tile::isTileOccupied)
-                .map(Tile::getPiece)
-                .filter(piece -> piece.getPieceAlliance() == alliance)
-                .collect(Collectors.toList());
-
-        return ImmutableList.copyOf(activePieces);
+    private void calculateLegalMoves(final Collection<Piece> pieces, final MoveList moveList) {
+        for (final Piece piece : pieces) {
+            piece.calculateLegalMoves(this, moveList);
+        }
     }
 
-    private static List<Tile> createGameBoard(final Builder builder) {
+    // packed piece moves of one side (castles are added by the players), appended without allocating
+    public void calculateLegalMoves(final Alliance alliance, final MoveList moveList) {
+        calculateLegalMoves(getActivePieces(alliance), moveList);
+    }
 
-        final Tile[] tiles = IntStream.range(0, BoardUtils.NUM_TILES)
-                .mapToObj(i -> Tile.createTile(i, builder.boardConfig.get(i)))
-                .toArray(Tile[]::new);
+    private static Collection<Piece> calculateActivePieces(final Piece[] boardConfig, final Alliance alliance) {
+        final ImmutableList.Builder<Piece> activePieces = ImmutableList.builder();
+        for (final Piece piece : boardConfig) {
+            if (piece != null && piece.getPieceAlliance() == alliance) {
+                activePieces.add(piece);
+            }
+        }
+        return activePieces.build();
+    }
 
-        return ImmutableList.copyOf(tiles);
+    private static Tile[] createGameBoard(final Builder builder) {
+        final Tile[] tiles = new Tile[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            tiles[i] = Tile.createTile(i, builder.boardConfig[i]);
+        }
+        return tiles;
     }
 
     public static ChessBoard createInitialBoard(){
         final Builder builder = new Builder();
         // BLACK Layout
-        builder.setPiece(new Rook(0, Alliance.BLACK));
-        builder.setPiece(new Knight(1, Alliance.BLACK));
-        builder.setPiece(new Bishop(2, Alliance.BLACK));
-        builder.setPiece(new Queen(3, Alliance.BLACK));
-        builder.setPiece(new King(4, Alliance.BLACK));
-        builder.setPiece(new Bishop(5, Alliance.BLACK));
-        builder.setPiece(new Knight(6, Alliance.BLACK));
-        builder.setPiece(new Rook(7, Alliance.BLACK));
+        builder.setPiece(Rook.of(0, Alliance.BLACK));
+        builder.setPiece(Knight.of(1, Alliance.BLACK));
+        builder.setPiece(Bishop.of(2, Alliance.BLACK));
+        builder.setPiece(Queen.of(3, Alliance.BLACK));
+        builder.setPiece(King.of(4, Alliance.BLACK));
+        builder.setPiece(Bishop.of(5, Alliance.BLACK));
+        builder.setPiece(Knight.of(6, Alliance.BLACK));
+        builder.setPiece(Rook.of(7, Alliance.BLACK));
         generatePawns(builder, Alliance.BLACK, 8, 15);
         // WHITE Layout
         generatePawns(builder, Alliance.WHITE, 48, 55);
-        builder.setPiece(new Rook(56, Alliance.WHITE));
-        builder.setPiece(new Knight(57, Alliance.WHITE));
-        builder.setPiece(new Bishop(58, Alliance.WHITE));
-        builder.setPiece(new Queen(59, Alliance.WHITE));
-        builder.setPiece(new King(60, Alliance.WHITE));
-        builder.setPiece(new Bishop(61, Alliance.WHITE));
-        builder.setPiece(new Knight(62, Alliance.WHITE));
-        builder.setPiece(new Rook(63, Alliance.WHITE));
+        builder.setPiece(Rook.of(56, Alliance.WHITE));
+        builder.setPiece(Knight.of(57, Alliance.WHITE));
+        builder.setPiece(Bishop.of(58, Alliance.WHITE));
+        builder.setPiece(Queen.of(59, Alliance.WHITE));
+        builder.setPiece(King.of(60, Alliance.WHITE));
+        builder.setPiece(Bishop.of(61, Alliance.WHITE));
+        builder.setPiece(Knight.of(62, Alliance.WHITE));
+        builder.setPiece(Rook.of(63, Alliance.WHITE));
         // WHITE starts the game
         builder.setMoveMaker(Alliance.WHITE);
 
@@ -114,12 +156,25 @@ public class ChessBoard {
     private static void generatePawns(final Builder builder, final Alliance alliance, int firstPosition, int lastPosition) {
 
         IntStream.rangeClosed(firstPosition, lastPosition)
-                .mapToObj(i -> new Pawn(i, alliance))
+                .mapToObj(i -> Pawn.of(i, alliance))
                 .forEach(builder::setPiece);
     }
 
     public Tile getTile(final int tileCoordinate) {
-        return gameBoard.get(tileCoordinate);
+        return this.gameBoard[tileCoordinate];
+    }
+    public BitBoard getBitBoard() {
+        return this.bitBoard;
+    }
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+    // packed middlegame and endgame material plus piece-square total, see PieceSquareTables
+    public int getPieceSquareScore() {
+        return this.pieceSquareScore;
+    }
+    public int getGamePhase() {
+        return this.gamePhase;
     }
     public Pawn getEnPassantPawn() {
         return this.enPassantPawn;
@@ -127,6 +182,13 @@ public class ChessBoard {
     public Move getTransitionMove() {
         return this.transitionMove;
     }
+    // moves since the last capture or pawn move, for the fifty move rule
+    public int getHalfMoveClock() {
+        return this.halfMoveClock;
+    }
+    public int getFullMoveNumber() {
+        return this.fullMoveNumber;
+    }
 
     public Collection<Piece> getBlackPieces() {
         return this.blackPieces;
@@ -134,40 +196,50 @@ public class ChessBoard {
     public Collection<Piece> getWhitePieces() {
         return this.whitePieces;
     }
+    public Collection<Piece> getActivePieces(final Alliance alliance) {
+        return alliance.isWhite() ? this.whitePieces : this.blackPieces;
+    }
+    public Alliance getNextMoveMaker() {
+        return this.nextMoveMaker;
+    }
     public Collection<Piece> getAllPieces() {
         return Stream.concat(this.whitePieces.stream(),
                 this.blackPieces.stream()).collect(Collectors.toList());
     }
     public Player blackPlayer() {
-        return this.blackPlayer;
+        return this.blackPlayer.get();
     }
     public Player whitePlayer() {
-        return this.whitePlayer;
+        return this.whitePlayer.get();
     }
+    // builds only the player to move and its moves, not its opponent
     public Player currentPlayer(){
-        return this.currentPlayer;
+        return this.nextMoveMaker.isWhite() ? this.whitePlayer.get() : this.blackPlayer.get();
     }
 
     public Collection<Move> getAllLegalMoves() {
-        Iterable<Move> allMoves = Iterables.unmodifiableIterable(Iterables.concat(this.whitePlayer.getLegalMoves(),
-                this.blackPlayer.getLegalMoves()));
+        Iterable<Move> allMoves = Iterables.unmodifiableIterable(Iterables.concat(whitePlayer().getLegalMoves(),
+                blackPlayer().getLegalMoves()));
 
         return ImmutableList.copyOf(allMoves);
     }
 
     public static class Builder {
 
-        Map<Integer, Piece> boardConfig;
+        final Piece[] boardConfig;
         Alliance nextMoveMaker;
         Pawn enPassantPawn;
         Move transitionMove;
+        int halfMoveClock;
+        int fullMoveNumber;
 
         public Builder() {
-            this.boardConfig = new HashMap<>();
+            this.boardConfig = new Piece[BoardUtils.NUM_TILES];
+            this.fullMoveNumber = 1;
         }
 
         public Builder setPiece(final Piece piece) {
-            this.boardConfig.put(piece.getPiecePosition(), piece);
+            this.boardConfig[piece.getPiecePosition()] = piece;
             return this;
         }
         public Builder setMoveMaker(final Alliance nextMoveMaker) {
@@ -184,6 +256,16 @@ public class ChessBoard {
             return this;
         }
 
+        // only used for boards not produced by a move, those count on from the previous board
+        public Builder setHalfMoveClock(final int halfMoveClock) {
+            this.halfMoveClock = halfMoveClock;
+            return this;
+        }
+        public Builder setFullMoveNumber(final int fullMoveNumber) {
+            this.fullMoveNumber = fullMoveNumber;
+            return this;
+        }
+
         public ChessBoard build() {
             return new ChessBoard(this);
         }
@@ -0,0 +1,50 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+
+// per tile attack sets of the pieces jumping a fixed distance, built once so move generation
+// needs no column exclusion tests and "attacked by a knight/king" is a single AND
+public final class LeaperAttacks {
+
+    private static final int[][] KNIGHT_JUMPS = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+    private static final int[][] KING_STEPS = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+
+    private static final long[] KNIGHT_ATTACKS = initAttacks(KNIGHT_JUMPS);
+    private static final long[] KING_ATTACKS = initAttacks(KING_STEPS);
+    // white pawns capture towards the top row, black pawns towards the bottom one
+    private static final long[] WHITE_PAWN_ATTACKS = initAttacks(new int[][]{{-1, -1}, {-1, 1}});
+    private static final long[] BLACK_PAWN_ATTACKS = initAttacks(new int[][]{{1, -1}, {1, 1}});
+
+    private LeaperAttacks() {
+        throw new RuntimeException("You can't instantiate me!");
+    }
+
+    public static long knightAttacks(final int tileCoordinate) {
+        return KNIGHT_ATTACKS[tileCoordinate];
+    }
+
+    public static long kingAttacks(final int tileCoordinate) {
+        return KING_ATTACKS[tileCoordinate];
+    }
+
+    public static long pawnAttacks(final int tileCoordinate, final Alliance pawnAlliance) {
+        return pawnAlliance.isWhite() ? WHITE_PAWN_ATTACKS[tileCoordinate] : BLACK_PAWN_ATTACKS[tileCoordinate];
+    }
+
+    private static long[] initAttacks(final int[][] offsets) {
+        final long[] attacks = new long[BoardUtils.NUM_TILES];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = tile % BoardUtils.NUM_TILES_PER_ROW;
+            for (final int[] offset : offsets) {
+                final int targetRow = row + offset[0];
+                final int targetColumn = column + offset[1];
+                if (targetRow >= 0 && targetRow < BoardUtils.NUM_TILES_PER_ROW &&
+                        targetColumn >= 0 && targetColumn < BoardUtils.NUM_TILES_PER_ROW) {
+                    attacks[tile] |= BoardUtils.tileMask(targetRow * BoardUtils.NUM_TILES_PER_ROW + targetColumn);
+                }
+            }
+        }
+        return attacks;
+    }
+}
@@ -0,0 +1,114 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+
+import static com.chess.engine.board.BitMove.*;
+
+// decides whether pseudo legal packed moves leave the own king attacked without playing them: the checking
+// pieces and the pieces pinned to the king are found once per position, after which every move is a few
+// mask tests. Piece bitboards are laid out as in BitBoard, alliance * 6 + piece type.
+public final class LegalMoveFilter {
+
+    private static final int PAWN = 0;
+    private static final int BISHOP = 2;
+    private static final int ROOK = 3;
+    private static final int QUEEN = 4;
+    private static final int KING = 5;
+    private static final int NUM_PIECE_TYPES = 6;
+
+    private long[] pieceBitboards;
+    private int them;
+    private long occupancy;
+    private int kingTile;
+    private long checkers;
+    private long pinned;
+
+    LegalMoveFilter() {
+    }
+
+    // filter for the moves of alliance on the given position
+    public static LegalMoveFilter create(final BitBoard bitBoard, final Alliance alliance) {
+        final LegalMoveFilter filter = new LegalMoveFilter();
+        filter.reset(bitBoard.getPieceBitboards(), alliance.ordinal());
+        return filter;
+    }
+
+    // recomputes checkers and pins; the array is read again by isLegal, so it must not change in between
+    void reset(final long[] pieceBitboards, final int us) {
+        this.pieceBitboards = pieceBitboards;
+        this.them = 1 - us;
+        long own = 0L;
+        long enemy = 0L;
+        for (int pieceType = PAWN; pieceType <= KING; pieceType++) {
+            own |= pieceBitboards[us * NUM_PIECE_TYPES + pieceType];
+            enemy |= pieceBitboards[this.them * NUM_PIECE_TYPES + pieceType];
+        }
+        this.occupancy = own | enemy;
+        this.kingTile = BoardUtils.firstTile(pieceBitboards[us * NUM_PIECE_TYPES + KING]);
+        this.checkers = BitBoard.attackersOf(pieceBitboards, this.kingTile, this.them, this.occupancy);
+
+        // enemy sliders that would hit the king on an empty board pin the single own piece in between
+        final long queens = pieceBitboards[this.them * NUM_PIECE_TYPES + QUEEN];
+        long snipers = (MagicAttacks.rookAttacks(this.kingTile, 0L) & (pieceBitboards[this.them * NUM_PIECE_TYPES + ROOK] | queens)) |
+                (MagicAttacks.bishopAttacks(this.kingTile, 0L) & (pieceBitboards[this.them * NUM_PIECE_TYPES + BISHOP] | queens));
+        this.pinned = 0L;
+        while (snipers != 0) {
+            final long blockers = Rays.between(this.kingTile, BoardUtils.firstTile(snipers)) & this.occupancy;
+            snipers &= snipers - 1;
+            if (Long.bitCount(blockers) == 1 && (blockers & own) != 0) {
+                this.pinned |= blockers;
+            }
+        }
+    }
+
+    public boolean isInCheck() {
+        return this.checkers != 0;
+    }
+
+    public long getCheckers() {
+        return this.checkers;
+    }
+
+    public long getPinned() {
+        return this.pinned;
+    }
+
+    // move must be pseudo legal for the position the filter was reset to
+    public boolean isLegal(final int move) {
+        final int from = getCurrentCoordinate(move);
+        final int to = getDestinationCoordinate(move);
+        final long toMask = BoardUtils.tileMask(to);
+
+        if (from == this.kingTile) {
+            if (isCastlingMove(move)) {
+                final int passedTile = (from + to) / 2;
+                return this.checkers == 0 &&
+                        BitBoard.attackersOf(this.pieceBitboards, passedTile, this.them, this.occupancy) == 0 &&
+                        BitBoard.attackersOf(this.pieceBitboards, to, this.them, this.occupancy) == 0;
+            }
+            // without the king on the board sliders see through its current tile
+            return BitBoard.attackersOf(this.pieceBitboards, to, this.them, this.occupancy ^ BoardUtils.tileMask(from)) == 0;
+        }
+
+        if (getFlags(move) == EN_PASSANT) {
+            // two pawns leave the king's row or diagonal at once, simply look at the resulting occupancy
+            final int capturedTile = (from / BoardUtils.NUM_TILES_PER_ROW) * BoardUtils.NUM_TILES_PER_ROW +
+                    to % BoardUtils.NUM_TILES_PER_ROW;
+            final long capturedMask = BoardUtils.tileMask(capturedTile);
+            final long occupancyAfter = (this.occupancy ^ BoardUtils.tileMask(from) ^ capturedMask) | toMask;
+            return (BitBoard.attackersOf(this.pieceBitboards, this.kingTile, this.them, occupancyAfter) & ~capturedMask) == 0;
+        }
+
+        if (this.checkers != 0) {
+            // double check leaves only king moves, a single check has to be captured or blocked
+            if (Long.bitCount(this.checkers) > 1) {
+                return false;
+            }
+            final int checker = BoardUtils.firstTile(this.checkers);
+            if ((toMask & (this.checkers | Rays.between(this.kingTile, checker))) == 0) {
+                return false;
+            }
+        }
+        return (this.pinned & BoardUtils.tileMask(from)) == 0 || (Rays.line(this.kingTile, from) & toMask) != 0;
+    }
+}
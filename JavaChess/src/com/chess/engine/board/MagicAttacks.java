@@ -0,0 +1,193 @@
+package com.chess.engine.board;
+
+import java.util.Random;
+
+// precomputed sliding attacks, a rook/bishop attack set is a single lookup indexed by a magic multiply
+// of the relevant occupancy (tables are filled once at class init)
+public final class MagicAttacks {
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MASKS = new long[BoardUtils.NUM_TILES];
+    // found offline for this tile numbering (0 is the top left corner), see findMagic
+    private static final long[] ROOK_MAGICS = {
+            0x1080004008801020L, 0x0840092002C03000L, 0x1900200010400900L, 0x0880100008000480L,
+            0x4200100420080200L, 0x8100020100080400L, 0x0200040110886200L, 0x0200008040220411L,
+            0x0404800084400220L, 0x0000401000402000L, 0x0086001081220440L, 0x0408800800100280L,
+            0x000A001201040820L, 0x8848800200840080L, 0x4001000100040200L, 0x0442000102105084L,
+            0x9080010020804100L, 0x0040404000201009L, 0x0000808010002009L, 0x2200090021D00100L,
+            0x0008008008040080L, 0x0004004002010040L, 0x0011040008015042L, 0x00000A0001768104L,
+            0x0000800080204009L, 0x2010004140002001L, 0x9800200280100080L, 0x1000100080080080L,
+            0x0442000A00049020L, 0x2100040080020080L, 0x0800120400900148L, 0x0010040A00128541L,
+            0x2800804000800030L, 0x1010002000400041L, 0x4000200011004100L, 0x0610008410800800L,
+            0x0400802402800800L, 0xC100020080800400L, 0x0002000802000401L, 0x0182085882000401L,
+            0x0220204000808000L, 0x2860100040024022L, 0x0001002004110040L, 0x99101042000A0020L,
+            0x0004080004008080L, 0x0010040002008080L, 0x2012004881020004L, 0x8300842444820011L,
+            0x0088403882010200L, 0x0820400080210100L, 0x0110910040A00300L, 0x0801100280080480L,
+            0x0242009008200600L, 0x1002000489500200L, 0x0040800200010080L, 0x0091800041000080L,
+            0x0000209300488001L, 0x04C1002414824001L, 0x020020000B001041L, 0x7000100004200901L,
+            0x8002002004100802L, 0x30010002084C0007L, 0x0888221800813004L, 0x4000002840840112L
+    };
+    private static final int[] ROOK_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final int[] ROOK_OFFSETS = new int[BoardUtils.NUM_TILES];
+    private static final long[] ROOK_ATTACKS;
+
+    private static final long[] BISHOP_MASKS = new long[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_MAGICS = {
+            0xA010041108003100L, 0x006082020A002900L, 0x6810010619200000L, 0x08281A0520000408L,
+            0x0001104001000400L, 0x0018901008048400L, 0x00040A0210245280L, 0x000200210808A402L,
+            0x9140048410821200L, 0x0800091010820041L, 0x20504804832202C0L, 0x0100091401081000L,
+            0x8021011140000012L, 0x0810020804450400L, 0x208B0542109008A2L, 0x0080084A08040204L,
+            0x0040E2A80811244CL, 0x2505022008008108L, 0x0430220100420040L, 0x010A040420220040L,
+            0x1105000290400000L, 0x0093001200822120L, 0x4000A62048043004L, 0x280120048A015004L,
+            0x006090002A020814L, 0x44042000240800D0L, 0x01102800040A4400L, 0x1004080080220040L,
+            0x0001001011004024L, 0x0010044000805040L, 0x0914041200820100L, 0x0004821012821480L,
+            0x0024040500C05021L, 0x0088611002080200L, 0x0116080A00040020L, 0x4000020080080080L,
+            0x2450450140840040L, 0x0000880201484100L, 0x0222020404020092L, 0x8081110600002E00L,
+            0x2842101105000801L, 0x1100809008001025L, 0x00020202221C0400L, 0x0422014022009020L,
+            0x0210046102100C00L, 0xC004008082029102L, 0x00AA461801101200L, 0x0404080080201108L,
+            0x020542108C205002L, 0x0410544804100100L, 0x0040910841100000L, 0x0400200042021100L,
+            0x00004204850400C0L, 0x0200100410A42102L, 0x1040020801210102L, 0x0805040410420000L,
+            0x2884804130100200L, 0x800C262201242000L, 0x1058000194108800L, 0x0014221054420204L,
+            0x0104000012A02200L, 0x0200881003300100L, 0x0140400202840100L, 0x0402020801010201L
+    };
+    private static final int[] BISHOP_SHIFTS = new int[BoardUtils.NUM_TILES];
+    private static final int[] BISHOP_OFFSETS = new int[BoardUtils.NUM_TILES];
+    private static final long[] BISHOP_ATTACKS;
+
+    static {
+        ROOK_ATTACKS = initTable(ROOK_DIRECTIONS, ROOK_MASKS, ROOK_MAGICS, ROOK_SHIFTS, ROOK_OFFSETS);
+        BISHOP_ATTACKS = initTable(BISHOP_DIRECTIONS, BISHOP_MASKS, BISHOP_MAGICS, BISHOP_SHIFTS, BISHOP_OFFSETS);
+    }
+
+    private MagicAttacks() {
+        throw new RuntimeException("You can't instantiate me!");
+    }
+
+    public static long rookAttacks(final int tileCoordinate, final long occupancy) {
+        return ROOK_ATTACKS[ROOK_OFFSETS[tileCoordinate] +
+                (int) (((occupancy & ROOK_MASKS[tileCoordinate]) * ROOK_MAGICS[tileCoordinate]) >>> ROOK_SHIFTS[tileCoordinate])];
+    }
+
+    public static long bishopAttacks(final int tileCoordinate, final long occupancy) {
+        return BISHOP_ATTACKS[BISHOP_OFFSETS[tileCoordinate] +
+                (int) (((occupancy & BISHOP_MASKS[tileCoordinate]) * BISHOP_MAGICS[tileCoordinate]) >>> BISHOP_SHIFTS[tileCoordinate])];
+    }
+
+    public static long queenAttacks(final int tileCoordinate, final long occupancy) {
+        return rookAttacks(tileCoordinate, occupancy) | bishopAttacks(tileCoordinate, occupancy);
+    }
+
+    private static long[] initTable(final int[][] directions,
+                                    final long[] masks,
+                                    final long[] magics,
+                                    final int[] shifts,
+                                    final int[] offsets) {
+        int tableSize = 0;
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            masks[tile] = relevantOccupancyMask(tile, directions);
+            final int bits = Long.bitCount(masks[tile]);
+            shifts[tile] = 64 - bits;
+            offsets[tile] = tableSize;
+            tableSize += 1 << bits;
+        }
+
+        final long[] table = new long[tableSize];
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            // enumerate every subset of the mask (Carry-Rippler)
+            long subset = 0L;
+            do {
+                final int index = offsets[tile] + (int) ((subset * magics[tile]) >>> shifts[tile]);
+                final long attacks = slidingAttacks(tile, subset, directions);
+                if (table[index] != 0 && table[index] != attacks) {
+                    throw new IllegalStateException("Bad magic for tile " + tile);
+                }
+                table[index] = attacks;
+                subset = (subset - masks[tile]) & masks[tile];
+            } while (subset != 0);
+        }
+        return table;
+    }
+
+    // offline search used to produce the magic tables above, kept so they can be regenerated
+    static long findMagic(final int tile, final boolean rook, final Random random) {
+        final int[][] directions = rook ? ROOK_DIRECTIONS : BISHOP_DIRECTIONS;
+        final long mask = relevantOccupancyMask(tile, directions);
+        final int bits = Long.bitCount(mask);
+        final int size = 1 << bits;
+        final long[] occupancies = new long[size];
+        final long[] attacks = new long[size];
+        long subset = 0L;
+        int count = 0;
+        do {
+            occupancies[count] = subset;
+            attacks[count++] = slidingAttacks(tile, subset, directions);
+            subset = (subset - mask) & mask;
+        } while (subset != 0);
+
+        final long[] slots = new long[size];
+        // attempt number that last wrote each slot, saves clearing the slots between attempts
+        final int[] epochs = new int[size];
+        int attempt = 0;
+        while (true) {
+            final long magic = random.nextLong() & random.nextLong() & random.nextLong();
+            // magics which spread too few mask bits into the index bits can never work
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            attempt++;
+            boolean fits = true;
+            for (int i = 0; i < size && fits; i++) {
+                final int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (epochs[index] != attempt) {
+                    epochs[index] = attempt;
+                    slots[index] = attacks[i];
+                } else if (slots[index] != attacks[i]) {
+                    fits = false;
+                }
+            }
+            if (fits) {
+                return magic;
+            }
+        }
+    }
+
+    // the ray tiles a blocker can stand on, edges excluded because a piece there never changes the attack set
+    private static long relevantOccupancyMask(final int tile, final int[][] directions) {
+        long mask = 0L;
+        for (final int[] direction : directions) {
+            int row = tile / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+            int column = tile % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+            while (isOnBoard(row + direction[0], column + direction[1])) {
+                mask |= BoardUtils.tileMask(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    // slow ray walk, only used to fill the tables
+    private static long slidingAttacks(final int tile, final long occupancy, final int[][] directions) {
+        long attacks = 0L;
+        for (final int[] direction : directions) {
+            int row = tile / BoardUtils.NUM_TILES_PER_ROW + direction[0];
+            int column = tile % BoardUtils.NUM_TILES_PER_ROW + direction[1];
+            while (isOnBoard(row, column)) {
+                final long tileMask = BoardUtils.tileMask(row * BoardUtils.NUM_TILES_PER_ROW + column);
+                attacks |= tileMask;
+                if ((occupancy & tileMask) != 0) {
+                    break;
+                }
+                row += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static boolean isOnBoard(final int row, final int column) {
+        return row >= 0 && row < BoardUtils.NUM_TILES_PER_ROW && column >= 0 && column < BoardUtils.NUM_TILES_PER_ROW;
+    }
+}
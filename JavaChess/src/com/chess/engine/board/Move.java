@@ -1,9 +1,9 @@
 package com.chess.engine.board;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.board.ChessBoard.Builder;
-import com.chess.engine.chess_pieces.Pawn;
-import com.chess.engine.chess_pieces.Piece;
-import com.chess.engine.chess_pieces.Rook;
+import com.chess.engine.chess_pieces.*;
+import com.chess.engine.chess_pieces.Piece.PieceType;
 
 import java.util.Objects;
 
@@ -71,26 +71,24 @@ public abstract class Move {
         // generate a map with the board configuration for the current player
         final Builder builder = new Builder();
         // we set all pieces except the current moving piece
-        this.board.currentPlayer().getActivePieces().stream()
-                .filter(piece -> !this.movedPiece.equals(piece)) // equal structure not ref!!!
+        this.board.getActivePieces(this.board.getNextMoveMaker()).stream()
+                .filter(piece -> !this.movedPiece.equals(piece)) // pieces are canonical, this is a reference compare
                 .forEach(builder::setPiece);
 
         // doing the same thing for the opponent pieces, but in this case all pieces are set
-        this.board.currentPlayer().getOpponent()
-                .getActivePieces().forEach(builder::setPiece);
+        this.board.getActivePieces(this.board.getNextMoveMaker().opposite()).forEach(builder::setPiece);
 
         // move the piece via this setPiece
         builder.setPiece(this.movedPiece.movePiece(this));
         // set the incoming move maker to the opponent
-        builder.setMoveMaker(this.board.currentPlayer()
-                .getOpponent().getAlliance());
+        builder.setMoveMaker(this.board.getNextMoveMaker().opposite());
         builder.setMoveTransition(this);
         return builder.build();
     }
     public ChessBoard undo() {
         final ChessBoard.Builder builder = new Builder();
         this.board.getAllPieces().stream().forEach(builder::setPiece);
-        builder.setMoveMaker(this.board.currentPlayer().getAlliance());
+        builder.setMoveMaker(this.board.getNextMoveMaker());
         return builder.build();
     }
 
@@ -144,11 +142,6 @@ public abstract class Move {
             this.attackedPiece = attackedPiece;
         }
 
-        @Override
-        public ChessBoard execute() {
-            return null;
-        }
-
         @Override
         public Piece getAttackedPiece() {
             return attackedPiece;
@@ -199,6 +192,97 @@ public abstract class Move {
                                  final Piece attackedPiece) {
             super(board, movedPiece, destinationCoordinate, attackedPiece);
         }
+
+        @Override
+        public ChessBoard execute() {
+            // the captured pawn is not on the destination tile, so it has to be left out explicitly
+            final Builder builder = new Builder();
+            this.board.getActivePieces(this.board.getNextMoveMaker()).stream()
+                    .filter(piece -> !this.getMovedPiece().equals(piece))
+                    .forEach(builder::setPiece);
+
+            this.board.getActivePieces(this.board.getNextMoveMaker().opposite()).stream()
+                    .filter(piece -> !this.getAttackedPiece().equals(piece))
+                    .forEach(builder::setPiece);
+
+            builder.setPiece(this.getMovedPiece().movePiece(this));
+            builder.setMoveMaker(this.board.getNextMoveMaker().opposite());
+            builder.setMoveTransition(this);
+            return builder.build();
+        }
+    }
+
+    // wraps the pawn move (or pawn attack) reaching the last row and swaps the pawn for the chosen piece
+    public static final class PawnPromotion extends Move {
+
+        private final Move decoratedMove;
+        private final PieceType promotionType;
+
+        public PawnPromotion(final Move decoratedMove, final PieceType promotionType) {
+            super(decoratedMove.getBoard(), decoratedMove.getMovedPiece(), decoratedMove.getDestinationCoordinate());
+            this.decoratedMove = decoratedMove;
+            this.promotionType = promotionType;
+        }
+
+        public PieceType getPromotionType() {
+            return this.promotionType;
+        }
+
+        @Override
+        public boolean isAttack() {
+            return this.decoratedMove.isAttack();
+        }
+
+        @Override
+        public Piece getAttackedPiece() {
+            return this.decoratedMove.getAttackedPiece();
+        }
+
+        @Override
+        public ChessBoard execute() {
+            final Builder builder = new Builder();
+            this.board.getActivePieces(this.board.getNextMoveMaker()).stream()
+                    .filter(piece -> !this.getMovedPiece().equals(piece))
+                    .forEach(builder::setPiece);
+
+            this.board.getActivePieces(this.board.getNextMoveMaker().opposite())
+                    .forEach(builder::setPiece);
+
+            // overwrites a captured piece on the destination tile
+            builder.setPiece(createPromotionPiece(this.getDestinationCoordinate(), this.getMovedPiece().getPieceAlliance()));
+            builder.setMoveMaker(this.board.getNextMoveMaker().opposite());
+            builder.setMoveTransition(this);
+            return builder.build();
+        }
+
+        private Piece createPromotionPiece(final int destinationCoordinate, final Alliance alliance) {
+            switch (this.promotionType) {
+                case KNIGHT:
+                    return Knight.of(destinationCoordinate, alliance, false);
+                case BISHOP:
+                    return Bishop.of(destinationCoordinate, alliance, false);
+                case ROOK:
+                    return Rook.of(destinationCoordinate, alliance, false);
+                case QUEEN:
+                    return Queen.of(destinationCoordinate, alliance, false);
+                default:
+                    throw new IllegalArgumentException("A pawn cannot promote to " + this.promotionType);
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * this.decoratedMove.hashCode() + this.promotionType.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PawnPromotion)) return false;
+            final PawnPromotion otherPromotion = (PawnPromotion) o;
+            return this.decoratedMove.equals(otherPromotion.decoratedMove) &&
+                    this.promotionType == otherPromotion.promotionType;
+        }
     }
 
     public static final class PawnJump extends Move {
@@ -213,17 +297,18 @@ public abstract class Move {
         public ChessBoard execute() {
             final Builder builder = new Builder();
 
-            this.board.currentPlayer().getActivePieces().stream()
+            this.board.getActivePieces(this.board.getNextMoveMaker()).stream()
                     .filter(piece -> !this.getMovedPiece().equals(piece))
                     .forEach(builder::setPiece);
 
-            this.board.currentPlayer().getOpponent().getActivePieces()
+            this.board.getActivePieces(this.board.getNextMoveMaker().opposite())
                     .forEach(builder::setPiece);
 
             final Pawn movedPawn = (Pawn) this.getMovedPiece().movePiece(this);
             builder.setPiece(movedPawn);
             builder.setEnPassantPawn(movedPawn);
-            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setMoveMaker(this.board.getNextMoveMaker().opposite());
+            builder.setMoveTransition(this);
 
             return builder.build();
         }
@@ -258,14 +343,18 @@ public abstract class Move {
         @Override
         public ChessBoard execute() {
             final Builder builder = new Builder();
-            this.board.currentPlayer().getActivePieces().stream()
+            this.board.getActivePieces(this.board.getNextMoveMaker()).stream()
                     .filter(piece -> !this.getMovedPiece().equals(piece))
                     .filter(piece -> !this.castleRook.equals(piece))
                     .forEach(builder::setPiece);
 
+            this.board.getActivePieces(this.board.getNextMoveMaker().opposite())
+                    .forEach(builder::setPiece);
+
             builder.setPiece(this.getMovedPiece().movePiece(this));
-            builder.setPiece(new Rook(this.castleRookDest, this.castleRook.getPieceAlliance()));
-            builder.setMoveMaker(this.board.currentPlayer().getOpponent().getAlliance());
+            builder.setPiece(Rook.of(this.castleRookDest, this.castleRook.getPieceAlliance(), false));
+            builder.setMoveMaker(this.board.getNextMoveMaker().opposite());
+            builder.setMoveTransition(this);
             return builder.build();
         }
     }
@@ -342,15 +431,24 @@ public abstract class Move {
         public static Move getNullMove() {
             return NULL_MOVE;
         }
+        // only the side owning the piece on currentCoordinate can have the move, so at most one index is probed in vain
         public static Move createMove(final ChessBoard board,
                                       final int currentCoordinate,
                                       final int destinationCoordinate) {
 
-            return board.getAllLegalMoves().stream()
-                    .filter(move -> move.getCurrentCoordinate() == currentCoordinate)
-                    .filter(move -> move.getDestinationCoordinate() == destinationCoordinate)
-                    .findFirst()
-                    .orElse(NULL_MOVE);
+            final Move move = board.currentPlayer().getLegalMove(currentCoordinate, destinationCoordinate);
+            return move != NULL_MOVE ? move :
+                    board.currentPlayer().getOpponent().getLegalMove(currentCoordinate, destinationCoordinate);
+        }
+
+        public static Move createMove(final ChessBoard board,
+                                      final int currentCoordinate,
+                                      final int destinationCoordinate,
+                                      final PieceType promotionType) {
+
+            final Move move = board.currentPlayer().getLegalMove(currentCoordinate, destinationCoordinate, promotionType);
+            return move != NULL_MOVE ? move :
+                    board.currentPlayer().getOpponent().getLegalMove(currentCoordinate, destinationCoordinate, promotionType);
         }
 
     }
@@ -0,0 +1,80 @@
+package com.chess.engine.board;
+
+import com.chess.engine.chess_pieces.Piece.PieceType;
+
+import java.util.Collection;
+
+// (from, to, promotion) -> move of one position, built once so that finding or validating a move is
+// a hash probe instead of a scan over Move.equals. Open addressing over a table at most half full.
+public final class MoveIndex {
+
+    private static final int NO_PROMOTION = 0;
+
+    private final int[] keys;
+    private final Move[] moves;
+    private final int mask;
+
+    public MoveIndex(final Collection<Move> legalMoves) {
+        int capacity = 16;
+        while (capacity < legalMoves.size() * 2) {
+            capacity <<= 1;
+        }
+        this.keys = new int[capacity];
+        this.moves = new Move[capacity];
+        this.mask = capacity - 1;
+        for (final Move move : legalMoves) {
+            // the first of equal keys wins, as a scan of the list would find it first
+            final int key = key(move.getCurrentCoordinate(), move.getDestinationCoordinate(), promotionTypeOf(move));
+            int slot = slot(key);
+            while (this.keys[slot] != 0 && this.keys[slot] != key) {
+                slot = (slot + 1) & this.mask;
+            }
+            if (this.keys[slot] == 0) {
+                this.keys[slot] = key;
+                this.moves[slot] = move;
+            }
+        }
+    }
+
+    // the move between the tiles, a pawn reaching the last row promotes to a queen; null if there is none
+    public Move get(final int currentCoordinate, final int destinationCoordinate) {
+        final Move move = get(currentCoordinate, destinationCoordinate, null);
+        return move != null ? move : get(currentCoordinate, destinationCoordinate, PieceType.QUEEN);
+    }
+
+    // promotionType null for every move but a promotion; null if there is no such move
+    public Move get(final int currentCoordinate, final int destinationCoordinate, final PieceType promotionType) {
+        if (currentCoordinate < 0 || currentCoordinate >= BoardUtils.NUM_TILES ||
+                destinationCoordinate < 0 || destinationCoordinate >= BoardUtils.NUM_TILES) {
+            return null;
+        }
+        final int key = key(currentCoordinate, destinationCoordinate, promotionType);
+        int slot = slot(key);
+        while (this.keys[slot] != 0) {
+            if (this.keys[slot] == key) {
+                return this.moves[slot];
+            }
+            slot = (slot + 1) & this.mask;
+        }
+        return null;
+    }
+
+    public boolean contains(final Move move) {
+        final Move indexed = get(move.getCurrentCoordinate(), move.getDestinationCoordinate(), promotionTypeOf(move));
+        return indexed != null && (indexed == move || indexed.equals(move));
+    }
+
+    private static PieceType promotionTypeOf(final Move move) {
+        return move instanceof Move.PawnPromotion ? ((Move.PawnPromotion) move).getPromotionType() : null;
+    }
+
+    // never 0, which marks an empty slot
+    private static int key(final int currentCoordinate, final int destinationCoordinate, final PieceType promotionType) {
+        final int promotion = promotionType == null ? NO_PROMOTION : promotionType.ordinal();
+        return ((currentCoordinate << 6 | destinationCoordinate) << 3 | promotion) + 1;
+    }
+
+    private int slot(final int key) {
+        return (key * 0x9E3779B9 >>> 16) & this.mask;
+    }
+}
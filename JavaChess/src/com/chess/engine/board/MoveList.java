@@ -0,0 +1,68 @@
+package com.chess.engine.board;
+
+import java.util.Arrays;
+
+// reusable list of packed moves (see BitMove), so generating moves allocates nothing once it has been created.
+// No position has more than 218 legal moves, the default capacity never has to grow during a game.
+public final class MoveList {
+
+    private int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(SearchBoard.MAX_MOVES);
+    }
+
+    public MoveList(final int capacity) {
+        this.moves = new int[Math.max(capacity, 1)];
+    }
+
+    public void add(final int move) {
+        if (this.size == this.moves.length) {
+            this.moves = Arrays.copyOf(this.moves, this.size * 2);
+        }
+        this.moves[this.size++] = move;
+    }
+
+    public int get(final int index) {
+        if (index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + this.size + " moves");
+        }
+        return this.moves[index];
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public boolean contains(final int move) {
+        for (int i = 0; i < this.size; i++) {
+            if (this.moves[i] == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // keeps the capacity for the next position
+    public void clear() {
+        this.size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(this.moves, this.size);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            builder.append(i == 0 ? "" : ", ").append(BitMove.toString(this.moves[i]));
+        }
+        return builder.append(']').toString();
+    }
+}
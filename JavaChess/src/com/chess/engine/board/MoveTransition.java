@@ -16,6 +16,14 @@ public class MoveTransition {
         this.moveStatus = moveStatus;
     }
 
+    public ChessBoard getTransitionBoard() {
+        return this.transitionBoard;
+    }
+
+    public Move getMove() {
+        return this.move;
+    }
+
     public MoveStatus getMoveStatus() {
         return this.moveStatus;
     }
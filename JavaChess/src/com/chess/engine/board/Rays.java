@@ -0,0 +1,40 @@
+package com.chess.engine.board;
+
+// the tiles between and along the line through two tiles sharing a row, column or diagonal,
+// so pins and check blocks become a single AND. Both are empty for tiles that are not aligned.
+public final class Rays {
+
+    private static final long[] BETWEEN = new long[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+    private static final long[] LINE = new long[BoardUtils.NUM_TILES * BoardUtils.NUM_TILES];
+
+    static {
+        for (int from = 0; from < BoardUtils.NUM_TILES; from++) {
+            for (int to = 0; to < BoardUtils.NUM_TILES; to++) {
+                final long fromMask = BoardUtils.tileMask(from);
+                final long toMask = BoardUtils.tileMask(to);
+                final int index = from * BoardUtils.NUM_TILES + to;
+                if ((MagicAttacks.rookAttacks(from, 0L) & toMask) != 0) {
+                    BETWEEN[index] = MagicAttacks.rookAttacks(from, toMask) & MagicAttacks.rookAttacks(to, fromMask);
+                    LINE[index] = (MagicAttacks.rookAttacks(from, 0L) & MagicAttacks.rookAttacks(to, 0L)) | fromMask | toMask;
+                } else if ((MagicAttacks.bishopAttacks(from, 0L) & toMask) != 0) {
+                    BETWEEN[index] = MagicAttacks.bishopAttacks(from, toMask) & MagicAttacks.bishopAttacks(to, fromMask);
+                    LINE[index] = (MagicAttacks.bishopAttacks(from, 0L) & MagicAttacks.bishopAttacks(to, 0L)) | fromMask | toMask;
+                }
+            }
+        }
+    }
+
+    private Rays() {
+        throw new RuntimeException("You can't instantiate me!");
+    }
+
+    // tiles strictly between the two
+    public static long between(final int from, final int to) {
+        return BETWEEN[from * BoardUtils.NUM_TILES + to];
+    }
+
+    // the whole row, column or diagonal through both, edge to edge
+    public static long line(final int from, final int to) {
+        return LINE[from * BoardUtils.NUM_TILES + to];
+    }
+}
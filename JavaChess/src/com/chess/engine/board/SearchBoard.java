@@ -0,0 +1,512 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+
+import java.util.Arrays;
+
+import static com.chess.engine.board.BitBoard.*;
+import static com.chess.engine.board.BitMove.*;
+
+// mutable bitboard position for search: makeMove/unmakeMove update the state in place and an undo
+// record per ply (a few ints) restores it, so nothing is allocated while walking the tree.
+// Use toChessBoard() when an immutable snapshot is needed.
+public final class SearchBoard {
+
+    public static final int MAX_MOVES = 256;
+    public static final int MAX_PLY = 1024;
+
+    static final int PAWN = 0;
+    static final int KNIGHT = 1;
+    static final int BISHOP = 2;
+    static final int ROOK = 3;
+    static final int QUEEN = 4;
+    static final int KING = 5;
+    static final int NUM_PIECE_TYPES = 6;
+    static final int WHITE = 0;
+    static final int BLACK = 1;
+    static final int EMPTY = -1;
+
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+    private static final Alliance[] ALLIANCES = Alliance.values();
+
+    // rights kept when a move touches a tile, clears them once a king or rook leaves (or a rook is taken)
+    private static final int[] CASTLING_MASKS = initCastlingMasks();
+
+    private final long[] pieceBitboards = new long[2 * NUM_PIECE_TYPES];
+    private final long[] allianceOccupancy = new long[2];
+    // piece code (alliance * 6 + piece type) per tile, EMPTY if nothing stands there
+    private final int[] mailbox = new int[BoardUtils.NUM_TILES];
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantTile;
+    private int halfMoveClock;
+    private long zobristKey;
+    private long pawnKey;
+    // packed material and piece-square total and game phase, kept up to date by every piece added, removed or moved
+    private int pieceSquareScore;
+    private int gamePhase;
+
+    // undo records
+    private int ply;
+    private final int[] undoMove = new int[MAX_PLY];
+    private final int[] undoCaptured = new int[MAX_PLY];
+    private final int[] undoCastlingRights = new int[MAX_PLY];
+    private final int[] undoEnPassantTile = new int[MAX_PLY];
+    private final int[] undoHalfMoveClock = new int[MAX_PLY];
+    private final long[] undoZobristKey = new long[MAX_PLY];
+    private final LegalMoveFilter legalMoveFilter = new LegalMoveFilter();
+    // scratch space of isPseudoLegal, a single pawn has at most 12 moves
+    private final int[] candidateMoves = new int[16];
+
+    public SearchBoard(final BitBoard bitBoard) {
+        this(bitBoard, 0);
+    }
+
+    public SearchBoard(final BitBoard bitBoard, final int halfMoveClock) {
+        Arrays.fill(this.mailbox, EMPTY);
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PIECE_TYPES) {
+                long pieces = bitBoard.getPieces(pieceType, alliance);
+                while (pieces != 0) {
+                    final int tile = BoardUtils.firstTile(pieces);
+                    pieces &= pieces - 1;
+                    addPiece(code(alliance.ordinal(), pieceType.ordinal()), tile);
+                }
+            }
+        }
+        this.sideToMove = bitBoard.getNextMoveMaker().ordinal();
+        this.castlingRights = bitBoard.getCastlingRights();
+        this.enPassantTile = bitBoard.getEnPassantTile();
+        this.halfMoveClock = halfMoveClock;
+        this.zobristKey ^= Zobrist.sideKey(bitBoard.getNextMoveMaker()) ^
+                Zobrist.castlingKey(this.castlingRights) ^
+                Zobrist.enPassantKey(this.enPassantTile);
+    }
+
+    public SearchBoard(final ChessBoard chessBoard) {
+        this(chessBoard.getBitBoard(), chessBoard.getHalfMoveClock());
+    }
+
+    private static int[] initCastlingMasks() {
+        final int[] masks = new int[BoardUtils.NUM_TILES];
+        Arrays.fill(masks, WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE | BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        masks[60] &= ~(WHITE_KING_SIDE_CASTLE | WHITE_QUEEN_SIDE_CASTLE);
+        masks[63] &= ~WHITE_KING_SIDE_CASTLE;
+        masks[56] &= ~WHITE_QUEEN_SIDE_CASTLE;
+        masks[4] &= ~(BLACK_KING_SIDE_CASTLE | BLACK_QUEEN_SIDE_CASTLE);
+        masks[7] &= ~BLACK_KING_SIDE_CASTLE;
+        masks[0] &= ~BLACK_QUEEN_SIDE_CASTLE;
+        return masks;
+    }
+
+    static int code(final int alliance, final int pieceType) {
+        return alliance * NUM_PIECE_TYPES + pieceType;
+    }
+
+    private void addPiece(final int pieceCode, final int tile) {
+        final long mask = BoardUtils.tileMask(tile);
+        this.pieceBitboards[pieceCode] |= mask;
+        this.allianceOccupancy[pieceCode / NUM_PIECE_TYPES] |= mask;
+        this.mailbox[tile] = pieceCode;
+        this.zobristKey ^= Zobrist.pieceKey(pieceCode, tile);
+        this.pawnKey ^= Zobrist.pawnKey(pieceCode, tile);
+        this.pieceSquareScore += PieceSquareTables.score(pieceCode, tile);
+        this.gamePhase += PieceSquareTables.phase(pieceCode);
+    }
+
+    private void removePiece(final int pieceCode, final int tile) {
+        final long mask = BoardUtils.tileMask(tile);
+        this.pieceBitboards[pieceCode] &= ~mask;
+        this.allianceOccupancy[pieceCode / NUM_PIECE_TYPES] &= ~mask;
+        this.mailbox[tile] = EMPTY;
+        this.zobristKey ^= Zobrist.pieceKey(pieceCode, tile);
+        this.pawnKey ^= Zobrist.pawnKey(pieceCode, tile);
+        this.pieceSquareScore -= PieceSquareTables.score(pieceCode, tile);
+        this.gamePhase -= PieceSquareTables.phase(pieceCode);
+    }
+
+    private void movePiece(final int pieceCode, final int from, final int to) {
+        final long mask = BoardUtils.tileMask(from) | BoardUtils.tileMask(to);
+        this.pieceBitboards[pieceCode] ^= mask;
+        this.allianceOccupancy[pieceCode / NUM_PIECE_TYPES] ^= mask;
+        this.mailbox[from] = EMPTY;
+        this.mailbox[to] = pieceCode;
+        this.zobristKey ^= Zobrist.pieceKey(pieceCode, from) ^ Zobrist.pieceKey(pieceCode, to);
+        this.pawnKey ^= Zobrist.pawnKey(pieceCode, from) ^ Zobrist.pawnKey(pieceCode, to);
+        this.pieceSquareScore += PieceSquareTables.score(pieceCode, to) - PieceSquareTables.score(pieceCode, from);
+    }
+
+    // plays a pseudo legal move; returns false (and leaves the board untouched) if it would leave the mover in check
+    public boolean makeMove(final int move) {
+        final int mover = this.sideToMove;
+        applyMove(move);
+        if (isTileAttacked(BoardUtils.firstTile(this.pieceBitboards[code(mover, KING)]), 1 - mover)) {
+            unmakeMove();
+            return false;
+        }
+        return true;
+    }
+
+    private void applyMove(final int move) {
+        if (this.ply == MAX_PLY) {
+            throw new IllegalStateException("Too many moves made on the search board!");
+        }
+        final int from = getCurrentCoordinate(move);
+        final int to = getDestinationCoordinate(move);
+        final int flags = getFlags(move);
+        final int us = this.sideToMove;
+        final int pieceCode = this.mailbox[from];
+        int captured = this.mailbox[to];
+
+        this.undoMove[this.ply] = move;
+        this.undoCastlingRights[this.ply] = this.castlingRights;
+        this.undoEnPassantTile[this.ply] = this.enPassantTile;
+        this.undoHalfMoveClock[this.ply] = this.halfMoveClock;
+        this.undoZobristKey[this.ply] = this.zobristKey;
+
+        this.zobristKey ^= Zobrist.enPassantKey(this.enPassantTile) ^ Zobrist.castlingKey(this.castlingRights);
+        this.enPassantTile = NO_EN_PASSANT;
+        if (flags == EN_PASSANT) {
+            captured = code(1 - us, PAWN);
+            removePiece(captured, enPassantVictimTile(to, us));
+        } else if (captured != EMPTY) {
+            removePiece(captured, to);
+        }
+        this.undoCaptured[this.ply] = captured;
+
+        if (isPromotion(move)) {
+            removePiece(pieceCode, from);
+            addPiece(code(us, getPromotionType(move).ordinal()), to);
+        } else {
+            movePiece(pieceCode, from, to);
+        }
+
+        if (flags == KING_SIDE_CASTLE) {
+            movePiece(code(us, ROOK), from + 3, from + 1);
+        } else if (flags == QUEEN_SIDE_CASTLE) {
+            movePiece(code(us, ROOK), from - 4, from - 1);
+        } else if (flags == PAWN_JUMP) {
+            this.enPassantTile = (from + to) / 2;
+        }
+
+        this.castlingRights &= CASTLING_MASKS[from] & CASTLING_MASKS[to];
+        this.halfMoveClock = pieceCode == code(us, PAWN) || captured != EMPTY ? 0 : this.halfMoveClock + 1;
+        this.sideToMove = 1 - us;
+        this.zobristKey ^= Zobrist.enPassantKey(this.enPassantTile) ^ Zobrist.castlingKey(this.castlingRights) ^
+                Zobrist.sideKey(Alliance.BLACK);
+        this.ply++;
+    }
+
+    public void unmakeMove() {
+        this.ply--;
+        final int move = this.undoMove[this.ply];
+        final int from = getCurrentCoordinate(move);
+        final int to = getDestinationCoordinate(move);
+        final int flags = getFlags(move);
+        final int us = 1 - this.sideToMove;
+
+        if (flags == KING_SIDE_CASTLE) {
+            movePiece(code(us, ROOK), from + 1, from + 3);
+        } else if (flags == QUEEN_SIDE_CASTLE) {
+            movePiece(code(us, ROOK), from - 1, from - 4);
+        }
+
+        if (isPromotion(move)) {
+            removePiece(this.mailbox[to], to);
+            addPiece(code(us, PAWN), from);
+        } else {
+            movePiece(this.mailbox[to], to, from);
+        }
+
+        final int captured = this.undoCaptured[this.ply];
+        if (flags == EN_PASSANT) {
+            addPiece(captured, enPassantVictimTile(to, us));
+        } else if (captured != EMPTY) {
+            addPiece(captured, to);
+        }
+
+        this.castlingRights = this.undoCastlingRights[this.ply];
+        this.enPassantTile = this.undoEnPassantTile[this.ply];
+        this.halfMoveClock = this.undoHalfMoveClock[this.ply];
+        // the piece updates above XOR-ed the key as well, the saved one covers everything at once
+        this.zobristKey = this.undoZobristKey[this.ply];
+        this.sideToMove = us;
+    }
+
+    // the captured pawn stands behind the en passant target, seen from the capturing side
+    private static int enPassantVictimTile(final int enPassantTile, final int capturer) {
+        return capturer == WHITE ? enPassantTile + BoardUtils.NUM_TILES_PER_ROW : enPassantTile - BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    // pseudo legal moves of the side to move, written from index 0; returns how many were written
+    public int generateMoves(final int[] moves) {
+        return generateQuiets(moves, generateCaptures(moves, 0));
+    }
+
+    // legal moves only, written from index 0; returns how many were written.
+    // Checks and pins are worked out once for the position, no move is played to find out
+    public int generateLegalMoves(final int[] moves) {
+        final int count = generateMoves(moves);
+        this.legalMoveFilter.reset(this.pieceBitboards, this.sideToMove);
+        int legalCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (this.legalMoveFilter.isLegal(moves[i])) {
+                moves[legalCount++] = moves[i];
+            }
+        }
+        return legalCount;
+    }
+
+    // captures, en passant and promotions, written from index count; returns the new count
+    public int generateCaptures(final int[] moves, final int count) {
+        final int us = this.sideToMove;
+        final int written = generatePawnMoves(moves, count, us, this.pieceBitboards[code(us, PAWN)], true, false);
+        return generatePieceMoves(moves, written, us, this.allianceOccupancy[1 - us]);
+    }
+
+    // every other move: quiet pawn and piece moves and castles, written from index count; returns the new count
+    public int generateQuiets(final int[] moves, final int count) {
+        final int us = this.sideToMove;
+        final long occupancy = this.allianceOccupancy[WHITE] | this.allianceOccupancy[BLACK];
+        int written = generatePawnMoves(moves, count, us, this.pieceBitboards[code(us, PAWN)], false, true);
+        written = generatePieceMoves(moves, written, us, ~occupancy);
+        return generateCastles(moves, written, us, occupancy);
+    }
+
+    // moves of knights to kings landing on targets
+    private int generatePieceMoves(final int[] moves, int count, final int us, final long targets) {
+        final long enemy = this.allianceOccupancy[1 - us];
+        final long occupancy = this.allianceOccupancy[us] | enemy;
+        for (int pieceType = KNIGHT; pieceType <= KING; pieceType++) {
+            long pieces = this.pieceBitboards[code(us, pieceType)];
+            while (pieces != 0) {
+                final int from = BoardUtils.firstTile(pieces);
+                pieces &= pieces - 1;
+                long destinations = attacksFrom(pieceType, from, occupancy) & targets;
+                while (destinations != 0) {
+                    final int to = BoardUtils.firstTile(destinations);
+                    destinations &= destinations - 1;
+                    moves[count++] = create(from, to, (enemy & BoardUtils.tileMask(to)) != 0 ? CAPTURE : QUIET);
+                }
+            }
+        }
+        return count;
+    }
+
+    // tactical: captures, en passant and promotions; quiet: the other pushes and jumps
+    private int generatePawnMoves(final int[] moves, int count, final int us, long pawns,
+                                  final boolean tactical, final boolean quiet) {
+        final long enemy = this.allianceOccupancy[1 - us];
+        final long occupancy = this.allianceOccupancy[us] | enemy;
+        final int forward = us == WHITE ? -BoardUtils.NUM_TILES_PER_ROW : BoardUtils.NUM_TILES_PER_ROW;
+        final boolean[] homeRow = us == WHITE ? BoardUtils.SEVENTH_ROW : BoardUtils.SECOND_ROW;
+        while (pawns != 0) {
+            final int from = BoardUtils.firstTile(pawns);
+            pawns &= pawns - 1;
+            final int oneStep = from + forward;
+            if ((occupancy & BoardUtils.tileMask(oneStep)) == 0) {
+                if (isPromotionTile(oneStep)) {
+                    if (tactical) {
+                        count = addPromotions(moves, count, from, oneStep, 0);
+                    }
+                } else if (quiet) {
+                    moves[count++] = create(from, oneStep, QUIET);
+                    final int twoSteps = oneStep + forward;
+                    if (homeRow[from] && (occupancy & BoardUtils.tileMask(twoSteps)) == 0) {
+                        moves[count++] = create(from, twoSteps, PAWN_JUMP);
+                    }
+                }
+            }
+            if (!tactical) {
+                continue;
+            }
+            final long attacks = LeaperAttacks.pawnAttacks(from, ALLIANCES[us]);
+            long captures = attacks & enemy;
+            while (captures != 0) {
+                final int to = BoardUtils.firstTile(captures);
+                captures &= captures - 1;
+                if (isPromotionTile(to)) {
+                    count = addPromotions(moves, count, from, to, CAPTURE);
+                } else {
+                    moves[count++] = create(from, to, CAPTURE);
+                }
+            }
+            if (this.enPassantTile != NO_EN_PASSANT && (attacks & BoardUtils.tileMask(this.enPassantTile)) != 0) {
+                moves[count++] = create(from, this.enPassantTile, EN_PASSANT);
+            }
+        }
+        return count;
+    }
+
+    private static boolean isPromotionTile(final int tile) {
+        return tile < BoardUtils.NUM_TILES_PER_ROW || tile >= BoardUtils.NUM_TILES - BoardUtils.NUM_TILES_PER_ROW;
+    }
+
+    private static int addPromotions(final int[] moves, int count, final int from, final int to, final int captureFlag) {
+        moves[count++] = create(from, to, QUEEN_PROMOTION | captureFlag);
+        moves[count++] = create(from, to, KNIGHT_PROMOTION | captureFlag);
+        moves[count++] = create(from, to, ROOK_PROMOTION | captureFlag);
+        moves[count++] = create(from, to, BISHOP_PROMOTION | captureFlag);
+        return count;
+    }
+
+    // whether a move from elsewhere (a hash or killer move) can be played here, as one generateMoves would write
+    public boolean isPseudoLegal(final int move) {
+        if (move == NULL_MOVE) {
+            return false;
+        }
+        final int us = this.sideToMove;
+        final int from = getCurrentCoordinate(move);
+        final int pieceCode = this.mailbox[from];
+        if (pieceCode == EMPTY || pieceCode / NUM_PIECE_TYPES != us) {
+            return false;
+        }
+        final int pieceType = pieceCode % NUM_PIECE_TYPES;
+        final long occupancy = this.allianceOccupancy[WHITE] | this.allianceOccupancy[BLACK];
+        if (pieceType == PAWN || isCastlingMove(move)) {
+            // at most a dozen candidates, cheaper to regenerate than to reason about every flag
+            final int count = pieceType == PAWN ?
+                    generatePawnMoves(this.candidateMoves, 0, us, BoardUtils.tileMask(from), true, true) :
+                    generateCastles(this.candidateMoves, 0, us, occupancy);
+            for (int i = 0; i < count; i++) {
+                if (this.candidateMoves[i] == move) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        final int flags = getFlags(move);
+        final long destination = BoardUtils.tileMask(getDestinationCoordinate(move));
+        if ((flags != QUIET && flags != CAPTURE) ||
+                (attacksFrom(pieceType, from, occupancy) & destination & ~this.allianceOccupancy[us]) == 0) {
+            return false;
+        }
+        return ((this.allianceOccupancy[1 - us] & destination) != 0) == (flags == CAPTURE);
+    }
+
+    private int generateCastles(final int[] moves, int count, final int us, final long occupancy) {
+        final int kingSide = us == WHITE ? WHITE_KING_SIDE_CASTLE : BLACK_KING_SIDE_CASTLE;
+        final int queenSide = us == WHITE ? WHITE_QUEEN_SIDE_CASTLE : BLACK_QUEEN_SIDE_CASTLE;
+        if ((this.castlingRights & (kingSide | queenSide)) == 0) {
+            return count;
+        }
+        final int kingTile = us == WHITE ? 60 : 4;
+        final int them = 1 - us;
+        if (isTileAttacked(kingTile, them)) {
+            return count;
+        }
+        if ((this.castlingRights & kingSide) != 0 &&
+                (occupancy & (BoardUtils.tileMask(kingTile + 1) | BoardUtils.tileMask(kingTile + 2))) == 0 &&
+                !isTileAttacked(kingTile + 1, them) && !isTileAttacked(kingTile + 2, them)) {
+            moves[count++] = create(kingTile, kingTile + 2, KING_SIDE_CASTLE);
+        }
+        if ((this.castlingRights & queenSide) != 0 &&
+                (occupancy & (BoardUtils.tileMask(kingTile - 1) | BoardUtils.tileMask(kingTile - 2) |
+                        BoardUtils.tileMask(kingTile - 3))) == 0 &&
+                !isTileAttacked(kingTile - 1, them) && !isTileAttacked(kingTile - 2, them)) {
+            moves[count++] = create(kingTile, kingTile - 2, QUEEN_SIDE_CASTLE);
+        }
+        return count;
+    }
+
+    private static long attacksFrom(final int pieceType, final int tile, final long occupancy) {
+        switch (pieceType) {
+            case KNIGHT:
+                return LeaperAttacks.knightAttacks(tile);
+            case BISHOP:
+                return MagicAttacks.bishopAttacks(tile, occupancy);
+            case ROOK:
+                return MagicAttacks.rookAttacks(tile, occupancy);
+            case QUEEN:
+                return MagicAttacks.queenAttacks(tile, occupancy);
+            case KING:
+                return LeaperAttacks.kingAttacks(tile);
+            default:
+                throw new IllegalArgumentException("No attack table for piece type " + pieceType);
+        }
+    }
+
+    boolean isTileAttacked(final int tile, final int attacker) {
+        final long occupancy = this.allianceOccupancy[WHITE] | this.allianceOccupancy[BLACK];
+        return BitBoard.attackersOf(this.pieceBitboards, tile, attacker, occupancy) != 0;
+    }
+
+    // fifty move rule, or the position already occurred since the last capture or pawn move
+    public boolean isDrawByRule() {
+        if (this.halfMoveClock >= 100) {
+            return true;
+        }
+        final int oldest = Math.max(0, this.ply - this.halfMoveClock);
+        for (int i = this.ply - 2; i >= oldest; i -= 2) {
+            if (this.undoZobristKey[i] == this.zobristKey) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isTileAttacked(final int tile, final Alliance attacker) {
+        return isTileAttacked(tile, attacker.ordinal());
+    }
+
+    public boolean isInCheck() {
+        return isTileAttacked(BoardUtils.firstTile(this.pieceBitboards[code(this.sideToMove, KING)]), 1 - this.sideToMove);
+    }
+
+    public Alliance getNextMoveMaker() {
+        return ALLIANCES[this.sideToMove];
+    }
+    public long getPieces(final PieceType pieceType, final Alliance alliance) {
+        return this.pieceBitboards[code(alliance.ordinal(), pieceType.ordinal())];
+    }
+    public long getAlliancePieces(final Alliance alliance) {
+        return this.allianceOccupancy[alliance.ordinal()];
+    }
+    public long getOccupancy() {
+        return this.allianceOccupancy[WHITE] | this.allianceOccupancy[BLACK];
+    }
+    // null if the tile is empty
+    public PieceType getPieceTypeOn(final int tile) {
+        return this.mailbox[tile] == EMPTY ? null : PIECE_TYPES[this.mailbox[tile] % NUM_PIECE_TYPES];
+    }
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+    public int getEnPassantTile() {
+        return this.enPassantTile;
+    }
+    public int getHalfMoveClock() {
+        return this.halfMoveClock;
+    }
+    public long getZobristKey() {
+        return this.zobristKey;
+    }
+    // pawns and kings only, see Zobrist
+    public long getPawnKey() {
+        return this.pawnKey;
+    }
+    // packed middlegame and endgame total, see PieceSquareTables
+    public int getPieceSquareScore() {
+        return this.pieceSquareScore;
+    }
+    public int getGamePhase() {
+        return this.gamePhase;
+    }
+    public int getPly() {
+        return this.ply;
+    }
+
+    public BitBoard toBitBoard() {
+        return BitBoard.create(this.pieceBitboards, getNextMoveMaker(), this.castlingRights, this.enPassantTile);
+    }
+
+    public ChessBoard toChessBoard() {
+        return toBitBoard().toChessBoard();
+    }
+
+    @Override
+    public String toString() {
+        return toBitBoard().toString();
+    }
+}
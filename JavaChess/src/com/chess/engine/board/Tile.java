@@ -1,31 +1,49 @@
 package com.chess.engine.board;
 
+import com.chess.engine.Alliance;
 import com.chess.engine.chess_pieces.Piece;
-import com.google.common.collect.ImmutableMap;
-
-import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import com.chess.engine.chess_pieces.Piece.PieceType;
 
 public abstract class Tile {
 
     protected final int tileCoordinate; // immutable field
-    private static final Map<Integer, EmptyTile> EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
+    private static final EmptyTile[] EMPTY_TILES_CACHE = createAllPossibleEmptyTiles();
+    // one tile per canonical piece, the tile being the one the piece stands on, indexed by Piece.getCanonicalIndex()
+    private static final OccupiedTile[] OCCUPIED_TILES_CACHE = createAllPossibleOccupiedTiles();
 
     private Tile(final int tileCoordinate) {
         this.tileCoordinate = tileCoordinate;
     }
 
-    private static Map<Integer,EmptyTile> createAllPossibleEmptyTiles() {
-        final Map<Integer, EmptyTile> emptyTileMap = IntStream.range(0, BoardUtils.NUM_TILES)
-                .boxed()
-                .collect(Collectors.toMap(i -> i, EmptyTile::new, (a, b) -> b));
+    private static EmptyTile[] createAllPossibleEmptyTiles() {
+        final EmptyTile[] emptyTiles = new EmptyTile[BoardUtils.NUM_TILES];
+        for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+            emptyTiles[i] = new EmptyTile(i);
+        }
+        return emptyTiles;
+    }
 
-        return ImmutableMap.copyOf(emptyTileMap); // from guava library --> more effective than Collections.unmodifiableMap()
+    private static OccupiedTile[] createAllPossibleOccupiedTiles() {
+        final OccupiedTile[] occupiedTiles = new OccupiedTile[Piece.NUM_CANONICAL_PIECES];
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                for (int i = 0; i < BoardUtils.NUM_TILES; i++) {
+                    for (final boolean isFirstMove : new boolean[]{false, true}) {
+                        final Piece piece = Piece.of(pieceType, i, alliance, isFirstMove);
+                        occupiedTiles[piece.getCanonicalIndex()] = new OccupiedTile(i, piece);
+                    }
+                }
+            }
+        }
+        return occupiedTiles;
     }
 
     public static Tile createTile(final int tileCoordinate, final Piece piece) {
-        return piece != null ? new OccupiedTile(tileCoordinate, piece): EMPTY_TILES_CACHE.get(tileCoordinate);
+        if (piece == null) {
+            return EMPTY_TILES_CACHE[tileCoordinate];
+        }
+        return piece.getPiecePosition() == tileCoordinate ?
+                OCCUPIED_TILES_CACHE[piece.getCanonicalIndex()] : new OccupiedTile(tileCoordinate, piece);
     }
 
     public abstract boolean isTileOccupied();
@@ -0,0 +1,116 @@
+package com.chess.engine.board;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.chess_pieces.Piece;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+
+import java.util.Random;
+
+// 64 bit position keys: the XOR of one random number per (piece, tile), the side to move,
+// the castling rights and the en passant column; moves update a key by XOR-ing only what changed.
+// The pawn key covers the pawns and kings only, the part of the position pawn structure terms depend on.
+public final class Zobrist {
+
+    private static final long[][] PIECE_KEYS = new long[12][BoardUtils.NUM_TILES];
+    private static final long BLACK_TO_MOVE_KEY;
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[BoardUtils.NUM_TILES_PER_ROW];
+    // the piece keys of pawns and kings, 0 for every other piece
+    private static final long[][] PAWN_KEYS = new long[12][];
+
+    static {
+        // fixed seed so keys (and anything stored under them) are stable between runs
+        final Random random = new Random(0x5A0B7157L);
+        for (final long[] pieceKeys : PIECE_KEYS) {
+            for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                pieceKeys[tile] = random.nextLong();
+            }
+        }
+        BLACK_TO_MOVE_KEY = random.nextLong();
+        // one key per right, combinations are the XOR of their parts
+        final long[] rightKeys = {random.nextLong(), random.nextLong(), random.nextLong(), random.nextLong()};
+        for (int rights = 0; rights < CASTLING_KEYS.length; rights++) {
+            for (int bit = 0; bit < rightKeys.length; bit++) {
+                if ((rights & (1 << bit)) != 0) {
+                    CASTLING_KEYS[rights] ^= rightKeys[bit];
+                }
+            }
+        }
+        for (int column = 0; column < EN_PASSANT_KEYS.length; column++) {
+            EN_PASSANT_KEYS[column] = random.nextLong();
+        }
+        for (int pieceCode = 0; pieceCode < PAWN_KEYS.length; pieceCode++) {
+            final PieceType pieceType = PieceType.values()[pieceCode % PieceType.values().length];
+            PAWN_KEYS[pieceCode] = pieceType == PieceType.PAWN || pieceType == PieceType.KING ?
+                    PIECE_KEYS[pieceCode] : new long[BoardUtils.NUM_TILES];
+        }
+    }
+
+    private Zobrist() {
+        throw new RuntimeException("You can't instantiate me!");
+    }
+
+    static long pieceKey(final int pieceCode, final int tile) {
+        return PIECE_KEYS[pieceCode][tile];
+    }
+    public static long pieceKey(final PieceType pieceType, final Alliance alliance, final int tile) {
+        return PIECE_KEYS[BitBoard.index(pieceType, alliance)][tile];
+    }
+    public static long pieceKey(final Piece piece) {
+        return pieceKey(piece.getPieceType(), piece.getPieceAlliance(), piece.getPiecePosition());
+    }
+    public static long sideKey(final Alliance nextMoveMaker) {
+        return nextMoveMaker.isBlack() ? BLACK_TO_MOVE_KEY : 0L;
+    }
+    static long pawnKey(final int pieceCode, final int tile) {
+        return PAWN_KEYS[pieceCode][tile];
+    }
+    public static long castlingKey(final int castlingRights) {
+        return CASTLING_KEYS[castlingRights];
+    }
+    public static long enPassantKey(final int enPassantTile) {
+        return enPassantTile == BitBoard.NO_EN_PASSANT ? 0L : EN_PASSANT_KEYS[enPassantTile % BoardUtils.NUM_TILES_PER_ROW];
+    }
+
+    // full key from scratch, only needed when a position does not come from a move
+    public static long calculateKey(final BitBoard bitBoard) {
+        long key = 0L;
+        for (final Alliance alliance : Alliance.values()) {
+            for (final PieceType pieceType : PieceType.values()) {
+                long pieces = bitBoard.getPieces(pieceType, alliance);
+                while (pieces != 0) {
+                    key ^= pieceKey(pieceType, alliance, BoardUtils.firstTile(pieces));
+                    pieces &= pieces - 1;
+                }
+            }
+        }
+        return key ^ sideKey(bitBoard.getNextMoveMaker()) ^
+                castlingKey(bitBoard.getCastlingRights()) ^
+                enPassantKey(bitBoard.getEnPassantTile());
+    }
+
+    // key of the board produced by a move, derived from the key of the board the move was made on
+    static long updateKey(final Move move, final BitBoard transitionBitBoard) {
+        final ChessBoard board = move.getBoard();
+        final BitBoard previous = board.getBitBoard();
+        final Piece movedPiece = move.getMovedPiece();
+        final int destination = move.getDestinationCoordinate();
+
+        long key = board.getZobristKey();
+        key ^= pieceKey(movedPiece);
+        // the piece arriving may differ from the one leaving when a pawn promotes
+        key ^= pieceKey(transitionBitBoard.getPieceTypeOn(destination), movedPiece.getPieceAlliance(), destination);
+        if (move.getAttackedPiece() != null) {
+            key ^= pieceKey(move.getAttackedPiece());
+        }
+        if (move.isCastlingMove()) {
+            final Move.CastleMove castleMove = (Move.CastleMove) move;
+            key ^= pieceKey(castleMove.getCastleRook());
+            key ^= pieceKey(PieceType.ROOK, movedPiece.getPieceAlliance(), castleMove.castleRookDest);
+        }
+        key ^= sideKey(previous.getNextMoveMaker()) ^ sideKey(transitionBitBoard.getNextMoveMaker());
+        key ^= castlingKey(previous.getCastlingRights()) ^ castlingKey(transitionBitBoard.getCastlingRights());
+        key ^= enPassantKey(previous.getEnPassantTile()) ^ enPassantKey(transitionBitBoard.getEnPassantTile());
+        return key;
+    }
+}
@@ -1,77 +1,38 @@
 package com.chess.engine.chess_pieces;
 
 import com.chess.engine.Alliance;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.MagicAttacks;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-
-import static com.chess.engine.board.Move.*;
+import com.chess.engine.board.MoveList;
 
 public class Bishop extends Piece{
 
-    private final static int[] CANDIDATE_VECTOR_OFFSETS = {-9, -7, 7, 9};
-
-    public Bishop(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.BISHOP, piecePosition, pieceAlliance);
+    Bishop(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.BISHOP, piecePosition, pieceAlliance, isFirstMove);
     }
 
-    @Override
-    public Collection<Move> calculateLegalMoves(final ChessBoard chessBoard) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int candidateCoordinateOffset: CANDIDATE_VECTOR_OFFSETS) {
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset) ||
-                isEighthColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset)) {
-                    break;
-                }
-
-                candidateDestinationCoordinate += candidateCoordinateOffset;
+    public static Bishop of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
 
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = chessBoard.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        // a tile is not occupied
-                        legalMoves.add(new MajorMove(chessBoard, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new AttackMove(chessBoard, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break;
-                    }
+    public static Bishop of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (Bishop) Piece.of(PieceType.BISHOP, piecePosition, pieceAlliance, isFirstMove);
+    }
 
-                }
-            }
-        }
-        return ImmutableList.copyOf(legalMoves);
+    @Override
+    public void calculateLegalMoves(final ChessBoard chessBoard, final MoveList moveList) {
+        appendMovesFromAttacks(chessBoard,
+                MagicAttacks.bishopAttacks(this.piecePosition, chessBoard.getBitBoard().getOccupancy()), moveList);
     }
 
     @Override
     public Bishop movePiece(final Move move) {
-        return new Bishop(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return of(move.getDestinationCoordinate(), this.pieceAlliance, false);
     }
 
     @Override
     public String toString() {
         return PieceType.BISHOP.toString();
     }
-
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -9 || candidateOffset == 7);
-    }
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 || candidateOffset == 9);
-    }
-
 }
@@ -1,70 +1,36 @@
 package com.chess.engine.chess_pieces;
 import com.chess.engine.Alliance;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.LeaperAttacks;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import com.chess.engine.board.MoveList;
 
 public class King extends Piece {
-    private final static int[] CANDIDATE_OFFSETS = {-9, -8, -7, -1, 1, 7, 8, 9};
 
-    public King(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.KING, piecePosition, pieceAlliance);
+    King(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.KING, piecePosition, pieceAlliance, isFirstMove);
     }
 
-    @Override
-    public Collection<Move> calculateLegalMoves(ChessBoard chessBoard) {
-
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int currentCandidateOffset: CANDIDATE_OFFSETS) {
-           final int candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
+    public static King of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
 
-           if (isFirstColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                   isEighthColumnExclusion(this.piecePosition, currentCandidateOffset))
-               continue;
+    public static King of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (King) Piece.of(PieceType.KING, piecePosition, pieceAlliance, isFirstMove);
+    }
 
-           if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)){
-               final Tile candidateDestinationTile = chessBoard.getTile(candidateDestinationCoordinate);
-               if (!candidateDestinationTile.isTileOccupied()) {
-                   // a tile is not occupied
-                   legalMoves.add(new Move.MajorMove(chessBoard, this,
-                           candidateDestinationCoordinate));
-               } else {
-                   final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                   final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                   if (this.pieceAlliance != pieceAlliance) {
-                       legalMoves.add(new Move.AttackMove(chessBoard, this,
-                               candidateDestinationCoordinate, pieceAtDestination));
-                   }
-               }
-           }
-        }
-        return ImmutableList.copyOf(legalMoves);
+    @Override
+    public void calculateLegalMoves(final ChessBoard chessBoard, final MoveList moveList) {
+        appendMovesFromAttacks(chessBoard, LeaperAttacks.kingAttacks(this.piecePosition), moveList);
     }
 
     @Override
     public King movePiece(final Move move) {
-        return new King(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return of(move.getDestinationCoordinate(), this.pieceAlliance, false);
     }
 
     @Override
     public String toString() {
         return PieceType.KING.toString(); // to test the app
     }
-
-    private static boolean isFirstColumnExclusion(final int currentPosiotion, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosiotion] && ((candidateOffset == -9) ||
-                (candidateOffset == -1) || (candidateOffset == 7));
-    }
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset){
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && ((candidateOffset == -7) ||
-                (candidateOffset==1) || (candidateOffset==9));
-    }
-
 }
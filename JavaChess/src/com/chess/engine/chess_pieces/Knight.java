@@ -2,83 +2,35 @@ package com.chess.engine.chess_pieces;
 
 import com.chess.engine.Alliance;
 import com.chess.engine.board.ChessBoard;
-import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LeaperAttacks;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Move.AttackMove;
-import com.chess.engine.board.Move.MajorMove;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import com.chess.engine.board.MoveList;
 
 public class Knight extends Piece{
-    private static final int[] CANDIDATE_OFFSETS = {-17, -15, -10, -6, 6, 10, 15, 17};
 
-    public Knight(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.KNIGHT, piecePosition, pieceAlliance);
+    Knight(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.KNIGHT, piecePosition, pieceAlliance, isFirstMove);
     }
 
-    @Override
-    public Collection<Move> calculateLegalMoves(final ChessBoard chessBoard) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for(final int currentCandidateOffset: CANDIDATE_OFFSETS) {
-            final int candidateDestinationCoordinate = this.piecePosition + currentCandidateOffset;
-
-            if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-
-                if (isFirstColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isSecondColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isSeventhColumnExclusion(this.piecePosition, currentCandidateOffset) ||
-                        isEighthColumnExclusion(this.piecePosition, currentCandidateOffset)) {
-                    continue;
-                }
+    public static Knight of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
 
-                final Tile candidateDestinationTile = chessBoard.getTile(candidateDestinationCoordinate);
-                if (!candidateDestinationTile.isTileOccupied()) {
-                    // a tile is not occupied
-                    legalMoves.add(new MajorMove(chessBoard, this,
-                            candidateDestinationCoordinate));
-                } else {
-                    final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                    final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                    if (this.pieceAlliance != pieceAlliance) {
-                        legalMoves.add(new AttackMove(chessBoard, this,
-                                candidateDestinationCoordinate, pieceAtDestination));
+    public static Knight of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (Knight) Piece.of(PieceType.KNIGHT, piecePosition, pieceAlliance, isFirstMove);
+    }
 
-                    }
-                }
-            }
-        }
-        return ImmutableList.copyOf(legalMoves);
+    @Override
+    public void calculateLegalMoves(final ChessBoard chessBoard, final MoveList moveList) {
+        appendMovesFromAttacks(chessBoard, LeaperAttacks.knightAttacks(this.piecePosition), moveList);
     }
     @Override
     public Knight movePiece(final Move move) {
-        return new Knight(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return of(move.getDestinationCoordinate(), this.pieceAlliance, false);
     }
 
     @Override
     public String toString() {
         return PieceType.KNIGHT.toString();
     }
-
-    private static boolean isFirstColumnExclusion(final int currentPosiotion, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosiotion] && ((candidateOffset == -17) ||
-                (candidateOffset == -10) || (candidateOffset == 6) || (candidateOffset == 15));
-    }
-    private static boolean isSecondColumnExclusion(final int currentPosition, final int candidateOffset){
-        return BoardUtils.SECOND_COLUMN[currentPosition] && ((candidateOffset == -10) ||
-                (candidateOffset==6));
-    }
-
-    private static boolean isSeventhColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.SEVENTH_COLUMN[currentPosition] && ((candidateOffset == -6) ||
-                (candidateOffset == 10));
-    }
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && ((candidateOffset == -15) ||
-                (candidateOffset == -6) || (candidateOffset == 10) || (candidateOffset == 17));
-    }
 }
@@ -1,74 +1,87 @@
 package com.chess.engine.chess_pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitMove;
 import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.LeaperAttacks;
 import com.chess.engine.board.Move;
-import com.google.common.collect.ImmutableList;
+import com.chess.engine.board.MoveList;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+public class Pawn extends Piece{
 
-import static com.chess.engine.board.Move.*;
+    private final static int[] PROMOTION_FLAGS = {BitMove.QUEEN_PROMOTION, BitMove.KNIGHT_PROMOTION,
+            BitMove.ROOK_PROMOTION, BitMove.BISHOP_PROMOTION};
 
-public class Pawn extends Piece{
+    Pawn(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.PAWN, piecePosition, pieceAlliance, isFirstMove);
+    }
 
-    private final static int[] CANDIDATE_OFFSETS = {8, 16, 7, 9};
+    public static Pawn of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
 
-    public Pawn(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.PAWN, piecePosition, pieceAlliance);
+    public static Pawn of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (Pawn) Piece.of(PieceType.PAWN, piecePosition, pieceAlliance, isFirstMove);
     }
 
     @Override
-    public Collection<Move> calculateLegalMoves(final ChessBoard chessBoard) {
-
-        final List<Move> legalMoves = new ArrayList<>();
-        for (final int currentCandidateOffset: CANDIDATE_OFFSETS) {
-            final int candidateDestinationCoordinate = this.piecePosition + this.pieceAlliance.getDirection() * currentCandidateOffset;
-            if (!BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate))
-                continue;
-
-            if (currentCandidateOffset == 8 && chessBoard.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                // wrocić tu - deal with promotions
-                legalMoves.add(new MajorMove(chessBoard, this, candidateDestinationCoordinate));
-            } else if(currentCandidateOffset == 16 && this.isFirstMove() &&
-                    (BoardUtils.SECOND_ROW[this.piecePosition] && this.getPieceAlliance().isBlack()) ||
-                    (BoardUtils.SEVENTH_ROW[this.piecePosition] && this.getPieceAlliance().isWhite())) {
-
-                final int behindCandidateDestinationCoordiante = this.piecePosition + this.pieceAlliance.getDirection() * 8;
-
-                if (!chessBoard.getTile(behindCandidateDestinationCoordiante).isTileOccupied() &&
-                    !chessBoard.getTile(candidateDestinationCoordinate).isTileOccupied())
-                    legalMoves.add(new MajorMove(chessBoard, this, candidateDestinationCoordinate));
-            } else if (currentCandidateOffset == 7 &&
-                    !((BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-                    (BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack())))) {
-                if (chessBoard.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = chessBoard.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        // TODO more
-                        legalMoves.add(new MajorMove(chessBoard, this, candidateDestinationCoordinate));
-                    }
-                }
-            } else if (currentCandidateOffset == 9 &&
-                    !((BoardUtils.FIRST_COLUMN[this.piecePosition] && this.pieceAlliance.isWhite() ||
-                     BoardUtils.EIGHTH_COLUMN[this.piecePosition] && this.pieceAlliance.isBlack()))) {
-                if (chessBoard.getTile(candidateDestinationCoordinate).isTileOccupied()) {
-                    final Piece pieceOnCandidate = chessBoard.getTile(candidateDestinationCoordinate).getPiece();
-                    if (this.pieceAlliance != pieceOnCandidate.getPieceAlliance()) {
-                        // TODO more
-                        legalMoves.add(new MajorMove(chessBoard, this, candidateDestinationCoordinate));
-                    }
-                }
+    public void calculateLegalMoves(final ChessBoard chessBoard, final MoveList moveList) {
+
+        final long occupancy = chessBoard.getBitBoard().getOccupancy();
+        final int forward = this.pieceAlliance.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+        final int candidateDestinationCoordinate = this.piecePosition + forward;
+
+        if ((occupancy & BoardUtils.tileMask(candidateDestinationCoordinate)) == 0) {
+            addMove(moveList, candidateDestinationCoordinate, BitMove.QUIET);
+
+            final int jumpDestinationCoordinate = candidateDestinationCoordinate + forward;
+            if (this.isFirstMove() && isOnHomeRow() &&
+                    (occupancy & BoardUtils.tileMask(jumpDestinationCoordinate)) == 0) {
+                moveList.add(BitMove.create(this.piecePosition, jumpDestinationCoordinate, BitMove.PAWN_JUMP));
+            }
+        }
+
+        final long attacks = LeaperAttacks.pawnAttacks(this.piecePosition, this.pieceAlliance);
+        long captures = attacks & chessBoard.getBitBoard().getAlliancePieces(this.pieceAlliance.opposite());
+        while (captures != 0) {
+            final int attackCoordinate = BoardUtils.firstTile(captures);
+            captures &= captures - 1;
+            addMove(moveList, attackCoordinate, BitMove.CAPTURE);
+        }
+
+        // the pawn which just jumped can be taken on the tile it passed
+        final Pawn enPassantPawn = chessBoard.getEnPassantPawn();
+        if (enPassantPawn != null && enPassantPawn.getPieceAlliance() != this.pieceAlliance) {
+            final int enPassantCoordinate = enPassantPawn.getPiecePosition() - enPassantPawn.getPieceAlliance().getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+            if ((attacks & BoardUtils.tileMask(enPassantCoordinate)) != 0) {
+                moveList.add(BitMove.create(this.piecePosition, enPassantCoordinate, BitMove.EN_PASSANT));
+            }
+        }
+    }
+
+    private void addMove(final MoveList moveList, final int destinationCoordinate, final int flags) {
+        if (isPromotionCoordinate(destinationCoordinate)) {
+            for (final int promotionFlag : PROMOTION_FLAGS) {
+                moveList.add(BitMove.create(this.piecePosition, destinationCoordinate, promotionFlag | flags));
             }
+        } else {
+            moveList.add(BitMove.create(this.piecePosition, destinationCoordinate, flags));
         }
-        return ImmutableList.copyOf(legalMoves);
+    }
+
+    private boolean isOnHomeRow() {
+        return this.pieceAlliance.isWhite() ? BoardUtils.SEVENTH_ROW[this.piecePosition] : BoardUtils.SECOND_ROW[this.piecePosition];
+    }
+
+    private boolean isPromotionCoordinate(final int coordinate) {
+        return this.pieceAlliance.isWhite() ? coordinate < BoardUtils.NUM_TILES_PER_ROW :
+                coordinate >= BoardUtils.NUM_TILES - BoardUtils.NUM_TILES_PER_ROW;
     }
 
     @Override
     public Pawn movePiece(final Move move) {
-        return new Pawn(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return of(move.getDestinationCoordinate(), this.pieceAlliance, false);
     }
 
     @Override
@@ -1,14 +1,21 @@
 package com.chess.engine.chess_pieces;
 
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitMove;
+import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.ChessBoard;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveList;
+import com.google.common.collect.ImmutableList;
 
 import java.util.Collection;
-import java.util.Objects;
 
 public abstract class Piece {
 
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+    // one instance per alliance, piece type, tile and first move flag
+    public static final int NUM_CANONICAL_PIECES = Alliance.values().length * NUM_PIECE_TYPES * BoardUtils.NUM_TILES * 2;
+
     protected final int piecePosition;
     protected final Alliance pieceAlliance;
     protected final boolean isFirstMove;
@@ -16,12 +23,13 @@ public abstract class Piece {
 
     Piece(final PieceType pieceType,
           final int piecePosition,
-          final Alliance pieceAlliance) {
+          final Alliance pieceAlliance,
+          final boolean isFirstMove) {
 
         this.pieceType = pieceType;
         this.piecePosition = piecePosition;
         this.pieceAlliance = pieceAlliance;
-        this.isFirstMove = false;
+        this.isFirstMove = isFirstMove;
     }
 
     public int getPiecePosition(){
@@ -37,25 +45,110 @@ public abstract class Piece {
         return this.pieceAlliance;
     }
 
+    // the one instance of a piece type, alliance, tile and first move flag; pieces are only made through here,
+    // so two pieces are equal exactly when they are the same object
+    public static Piece of(final PieceType pieceType,
+                           final int piecePosition,
+                           final Alliance pieceAlliance,
+                           final boolean isFirstMove) {
+        return CanonicalPieces.PIECES[index(pieceType, piecePosition, pieceAlliance, isFirstMove)];
+    }
+
+    private static int index(final PieceType pieceType,
+                             final int piecePosition,
+                             final Alliance pieceAlliance,
+                             final boolean isFirstMove) {
+        return ((pieceAlliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal()) * BoardUtils.NUM_TILES +
+                piecePosition) * 2 + (isFirstMove ? 1 : 0);
+    }
+
+    // the index of the canonical instance, below NUM_CANONICAL_PIECES; tables of per piece data use it as well
+    public int getCanonicalIndex() {
+        return index(this.pieceType, this.piecePosition, this.pieceAlliance, this.isFirstMove);
+    }
+
     @Override
     public boolean equals(final Object other) {
-        if (this == other) return true;
-        if (other == null || getClass() != other.getClass()) return false;
-        Piece piece = (Piece) other;
-        return piecePosition == piece.piecePosition &&
-                isFirstMove == piece.isFirstMove &&
-                pieceAlliance == piece.pieceAlliance &&
-                pieceType == piece.pieceType;
+        return this == other;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(piecePosition, pieceAlliance, isFirstMove, pieceType);
+        return getCanonicalIndex();
+    }
+
+    // turn an attack set into packed moves, tiles held by friendly pieces are dropped
+    protected void appendMovesFromAttacks(final ChessBoard chessBoard, final long attacks, final MoveList moveList) {
+        final long opponentPieces = chessBoard.getBitBoard().getAlliancePieces(this.pieceAlliance.opposite());
+        long destinations = attacks & ~chessBoard.getBitBoard().getAlliancePieces(this.pieceAlliance);
+
+        while (destinations != 0) {
+            final int candidateDestinationCoordinate = BoardUtils.firstTile(destinations);
+            destinations &= destinations - 1;
+            final boolean isAttack = (opponentPieces & BoardUtils.tileMask(candidateDestinationCoordinate)) != 0;
+            moveList.add(BitMove.create(this.piecePosition, candidateDestinationCoordinate,
+                    isAttack ? BitMove.CAPTURE : BitMove.QUIET));
+        }
     }
 
-    public abstract Collection<Move> calculateLegalMoves(final ChessBoard chessBoard);
+    // object view of the packed moves, for callers outside the move generation hot path
+    public Collection<Move> calculateLegalMoves(final ChessBoard chessBoard) {
+        final MoveList moveList = new MoveList();
+        calculateLegalMoves(chessBoard, moveList);
+        final Move[] legalMoves = new Move[moveList.size()];
+        for (int i = 0; i < legalMoves.length; i++) {
+            legalMoves[i] = BitMove.toMove(chessBoard, moveList.get(i));
+        }
+        return ImmutableList.copyOf(legalMoves);
+    }
+
+    // appends the packed moves of the piece, allocating nothing
+    public abstract void calculateLegalMoves(final ChessBoard chessBoard, final MoveList moveList);
     public abstract Piece movePiece(Move move);
 
+    // filled on first use, after Piece and its subclasses are initialised
+    private static final class CanonicalPieces {
+
+        private static final Piece[] PIECES = createPieces();
+
+        private static Piece[] createPieces() {
+            final Piece[] pieces = new Piece[NUM_CANONICAL_PIECES];
+            for (final Alliance alliance : Alliance.values()) {
+                for (final PieceType pieceType : PieceType.values()) {
+                    for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+                        for (final boolean isFirstMove : new boolean[]{false, true}) {
+                            pieces[index(pieceType, tile, alliance, isFirstMove)] =
+                                    createPiece(pieceType, tile, alliance, isFirstMove);
+                        }
+                    }
+                }
+            }
+            return pieces;
+        }
+
+        private static Piece createPiece(final PieceType pieceType,
+                                         final int piecePosition,
+                                         final Alliance pieceAlliance,
+                                         final boolean isFirstMove) {
+            switch (pieceType) {
+                case PAWN:
+                    return new Pawn(piecePosition, pieceAlliance, isFirstMove);
+                case KNIGHT:
+                    return new Knight(piecePosition, pieceAlliance, isFirstMove);
+                case BISHOP:
+                    return new Bishop(piecePosition, pieceAlliance, isFirstMove);
+                case ROOK:
+                    return new Rook(piecePosition, pieceAlliance, isFirstMove);
+                case QUEEN:
+                    return new Queen(piecePosition, pieceAlliance, isFirstMove);
+                case KING:
+                    return new King(piecePosition, pieceAlliance, isFirstMove);
+                default:
+                    throw new IllegalArgumentException("Unknown piece type " + pieceType);
+            }
+        }
+    }
+
     public enum PieceType {
         PAWN("P"){
             @Override
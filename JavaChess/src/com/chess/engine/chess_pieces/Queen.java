@@ -1,76 +1,38 @@
 package com.chess.engine.chess_pieces;
 
 import com.chess.engine.Alliance;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.MagicAttacks;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import com.chess.engine.board.MoveList;
 
 public class Queen extends Piece {
 
-    private final static int[] CANDIDATE_VECTOR_OFFSETS = {-9, -8, -7, -1, 1, 7, 8, 9};
-
-    public Queen(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.QUEEN, piecePosition, pieceAlliance);
+    Queen(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.QUEEN, piecePosition, pieceAlliance, isFirstMove);
     }
 
-    @Override
-    public Collection<Move> calculateLegalMoves(final ChessBoard chessBoard) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int candidateCoordinateOffset : CANDIDATE_VECTOR_OFFSETS) {
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset) ||
-                        isEighthColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset)) {
-                    break;
-                }
+    public static Queen of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
 
-                candidateDestinationCoordinate += candidateCoordinateOffset;
+    public static Queen of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (Queen) Piece.of(PieceType.QUEEN, piecePosition, pieceAlliance, isFirstMove);
+    }
 
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = chessBoard.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        // a tile is not occupied
-                        legalMoves.add(new Move.MajorMove(chessBoard, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new Move.AttackMove(chessBoard, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-        return ImmutableList.copyOf(legalMoves);
+    @Override
+    public void calculateLegalMoves(final ChessBoard chessBoard, final MoveList moveList) {
+        appendMovesFromAttacks(chessBoard,
+                MagicAttacks.queenAttacks(this.piecePosition, chessBoard.getBitBoard().getOccupancy()), moveList);
     }
 
     @Override
     public Queen movePiece(final Move move) {
-        return new Queen(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return of(move.getDestinationCoordinate(), this.pieceAlliance, false);
     }
 
     @Override
     public String toString() {
         return PieceType.QUEEN.toString(); // to test the app
     }
-
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -1 ||
-                candidateOffset == -9 || candidateOffset == 7);
-    }
-
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == -7 ||
-                candidateOffset == 1 || candidateOffset == 9);
-    }
-}
\ No newline at end of file
+}
@@ -1,72 +1,38 @@
 package com.chess.engine.chess_pieces;
 
 import com.chess.engine.Alliance;
-import com.chess.engine.board.BoardUtils;
 import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.MagicAttacks;
 import com.chess.engine.board.Move;
-import com.chess.engine.board.Tile;
-import com.google.common.collect.ImmutableList;
-
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
+import com.chess.engine.board.MoveList;
 
 public class Rook extends Piece {
-    private final static int[] CANDIDATE_VECTOR_OFFSETS = {-8, -1, 1, 8};
 
-    public Rook(final int piecePosition, final Alliance pieceAlliance) {
-        super(PieceType.ROOK, piecePosition, pieceAlliance);
+    Rook(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        super(PieceType.ROOK, piecePosition, pieceAlliance, isFirstMove);
     }
 
-    @Override
-    public Collection<Move> calculateLegalMoves(final ChessBoard chessBoard) {
-        final List<Move> legalMoves = new ArrayList<>();
-
-        for (final int candidateCoordinateOffset: CANDIDATE_VECTOR_OFFSETS) {
-            int candidateDestinationCoordinate = this.piecePosition;
-
-            while (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-
-                if (isFirstColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset) ||
-                        isEighthColumnExclusion(candidateDestinationCoordinate, candidateCoordinateOffset)) {
-                    break;
-                }
+    public static Rook of(final int piecePosition, final Alliance pieceAlliance) {
+        return of(piecePosition, pieceAlliance, true);
+    }
 
-                candidateDestinationCoordinate += candidateCoordinateOffset;
+    public static Rook of(final int piecePosition, final Alliance pieceAlliance, final boolean isFirstMove) {
+        return (Rook) Piece.of(PieceType.ROOK, piecePosition, pieceAlliance, isFirstMove);
+    }
 
-                if (BoardUtils.isValidTileCoordinate(candidateDestinationCoordinate)) {
-                    final Tile candidateDestinationTile = chessBoard.getTile(candidateDestinationCoordinate);
-                    if (!candidateDestinationTile.isTileOccupied()) {
-                        // a tile is not occupied
-                        legalMoves.add(new Move.MajorMove(chessBoard, this, candidateDestinationCoordinate));
-                    } else {
-                        final Piece pieceAtDestination = candidateDestinationTile.getPiece();
-                        final Alliance pieceAlliance = pieceAtDestination.getPieceAlliance();
-                        if (this.pieceAlliance != pieceAlliance) {
-                            legalMoves.add(new Move.AttackMove(chessBoard, this, candidateDestinationCoordinate, pieceAtDestination));
-                        }
-                        break;
-                    }
-                }
-            }
-        }
-        return ImmutableList.copyOf(legalMoves);
+    @Override
+    public void calculateLegalMoves(final ChessBoard chessBoard, final MoveList moveList) {
+        appendMovesFromAttacks(chessBoard,
+                MagicAttacks.rookAttacks(this.piecePosition, chessBoard.getBitBoard().getOccupancy()), moveList);
     }
 
     @Override
     public Rook movePiece(final Move move) {
-        return new Rook(move.getDestinationCoordinate(), move.getMovedPiece().getPieceAlliance());
+        return of(move.getDestinationCoordinate(), this.pieceAlliance, false);
     }
 
     @Override
     public String toString() {
         return PieceType.ROOK.toString(); // to test the app
     }
-
-    private static boolean isFirstColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.FIRST_COLUMN[currentPosition] && (candidateOffset == -1);
-    }
-    private static boolean isEighthColumnExclusion(final int currentPosition, final int candidateOffset) {
-        return BoardUtils.EIGHTH_COLUMN[currentPosition] && (candidateOffset == 1);
-    }
 }
@@ -0,0 +1,202 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BitMove;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// perft split over a ForkJoinPool: the top of the tree becomes tasks on immutable BitBoard snapshots
+// (no copying needed to hand them to another thread), idle workers steal subtrees, and the subtrees
+// near the leaves run on a SearchBoard per task. The total does not depend on scheduling.
+public final class ParallelPerft {
+
+    // remaining depth at which a subtree stops splitting and is counted sequentially
+    private static final int SEQUENTIAL_DEPTH = 4;
+
+    private final int parallelism;
+    private final long cacheSizeInMegabytes;
+
+    public ParallelPerft(final int parallelism, final long cacheSizeInMegabytes) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1, got " + parallelism);
+        }
+        this.parallelism = parallelism;
+        this.cacheSizeInMegabytes = cacheSizeInMegabytes;
+    }
+
+    public ParallelPerft() {
+        this(Runtime.getRuntime().availableProcessors(), 0);
+    }
+
+    // the result divides the count by root move, so the depth has to reach them
+    public Result run(final BitBoard position, final int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Parallel perft needs a depth of at least 1, got " + depth);
+        }
+        final ForkJoinPool pool = new ForkJoinPool(this.parallelism);
+        final RunState state = new RunState(this.parallelism,
+                this.cacheSizeInMegabytes > 0 ? new PerftCache(this.cacheSizeInMegabytes) : null);
+        try {
+            final long start = System.nanoTime();
+            final Map<String, Long> divide = pool.invoke(new RootTask(position, depth, state));
+            final long elapsed = System.nanoTime() - start;
+            return new Result(divide, state, elapsed);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // counters are indexed by the worker's pool index, so recording costs no allocation or lookup
+    private static final class RunState {
+        private final AtomicLongArray threadNodes;
+        private final AtomicLongArray threadBusyNanos;
+        private final PerftCache cache;
+        private final ThreadLocal<Perft> perfts;
+
+        private RunState(final int parallelism, final PerftCache cache) {
+            this.threadNodes = new AtomicLongArray(parallelism);
+            this.threadBusyNanos = new AtomicLongArray(parallelism);
+            this.cache = cache;
+            this.perfts = ThreadLocal.withInitial(() -> new Perft(cache));
+        }
+
+        private void record(final long nodes, final long busyNanos) {
+            final int index = ((ForkJoinWorkerThread) Thread.currentThread()).getPoolIndex() % this.threadNodes.length();
+            this.threadNodes.addAndGet(index, nodes);
+            this.threadBusyNanos.addAndGet(index, busyNanos);
+        }
+    }
+
+    private static final class RootTask extends RecursiveTask<Map<String, Long>> {
+        private static final long serialVersionUID = 1L;
+
+        private final BitBoard position;
+        private final int depth;
+        private final RunState state;
+
+        private RootTask(final BitBoard position, final int depth, final RunState state) {
+            this.position = position;
+            this.depth = depth;
+            this.state = state;
+        }
+
+        @Override
+        protected Map<String, Long> compute() {
+            final Map<String, Long> divide = new LinkedHashMap<>();
+            final SearchBoard board = new SearchBoard(this.position);
+            final int[] moves = new int[SearchBoard.MAX_MOVES];
+            final int moveCount = board.generateMoves(moves);
+            final List<String> names = new ArrayList<>();
+            final List<SubtreeTask> tasks = new ArrayList<>();
+            for (int i = 0; i < moveCount; i++) {
+                if (board.makeMove(moves[i])) {
+                    names.add(BitMove.toString(moves[i]));
+                    tasks.add(new SubtreeTask(board.toBitBoard(), this.depth - 1, this.state));
+                    board.unmakeMove();
+                }
+            }
+            invokeAll(tasks);
+            for (int i = 0; i < tasks.size(); i++) {
+                divide.put(names.get(i), tasks.get(i).join());
+            }
+            return divide;
+        }
+    }
+
+    private static final class SubtreeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final BitBoard position;
+        private final int depth;
+        private final RunState state;
+
+        private SubtreeTask(final BitBoard position, final int depth, final RunState state) {
+            this.position = position;
+            this.depth = depth;
+            this.state = state;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.depth <= SEQUENTIAL_DEPTH) {
+                final long start = System.nanoTime();
+                final long nodes = this.state.perfts.get().perft(new SearchBoard(this.position), this.depth);
+                this.state.record(nodes, System.nanoTime() - start);
+                return nodes;
+            }
+            final SearchBoard board = new SearchBoard(this.position);
+            final int[] moves = new int[SearchBoard.MAX_MOVES];
+            final int moveCount = board.generateMoves(moves);
+            final List<SubtreeTask> tasks = new ArrayList<>();
+            for (int i = 0; i < moveCount; i++) {
+                if (board.makeMove(moves[i])) {
+                    tasks.add(new SubtreeTask(board.toBitBoard(), this.depth - 1, this.state));
+                    board.unmakeMove();
+                }
+            }
+            long nodes = 0;
+            for (final SubtreeTask task : invokeAll(tasks)) {
+                nodes += task.join();
+            }
+            return nodes;
+        }
+    }
+
+    public static final class Result {
+        private final Map<String, Long> divide;
+        private final long nodes;
+        private final long[] threadNodes;
+        private final long busyNanos;
+        private final long elapsedNanos;
+
+        private Result(final Map<String, Long> divide, final RunState state, final long elapsedNanos) {
+            this.divide = Collections.unmodifiableMap(divide);
+            this.nodes = divide.values().stream().mapToLong(Long::longValue).sum();
+            this.threadNodes = new long[state.threadNodes.length()];
+            long busy = 0;
+            for (int i = 0; i < this.threadNodes.length; i++) {
+                this.threadNodes[i] = state.threadNodes.get(i);
+                busy += state.threadBusyNanos.get(i);
+            }
+            this.busyNanos = busy;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public Map<String, Long> getDivide() {
+            return this.divide;
+        }
+        public long getNodes() {
+            return this.nodes;
+        }
+        // leaf nodes of the subtrees each worker counted, they add up to getNodes()
+        public long[] getThreadNodes() {
+            return this.threadNodes.clone();
+        }
+        public long getElapsedNanos() {
+            return this.elapsedNanos;
+        }
+        // time spent counting summed over workers against wall time times workers, 1.0 is perfect scaling
+        public double getEfficiency() {
+            return this.elapsedNanos == 0 ? 0 : (double) this.busyNanos / (this.elapsedNanos * this.threadNodes.length);
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < this.threadNodes.length; i++) {
+                builder.append(String.format("Thread %d: %d nodes%n", i, this.threadNodes[i]));
+            }
+            builder.append(String.format("Efficiency: %.1f%% of %d threads", getEfficiency() * 100, this.threadNodes.length));
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.chess.engine.perft;
+
+import com.chess.engine.board.BitMove;
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveTransition;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.pgn.FenUtilities;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// counts the leaf nodes of the legal move tree to a fixed depth; the counts of well known positions are
+// published, so any difference points at a move generation bug, and the speed is our nodes/sec yardstick.
+// An instance owns its move buffers and cache and is not meant to be shared between threads.
+public final class Perft {
+
+    private static final String USAGE = "usage: perft <depth> [--divide] [--hash <MB>] [--objects] [--threads <n>] [--fen <fen>]";
+
+    private final int[][] moveBuffers = new int[SearchBoard.MAX_PLY][];
+    private final PerftCache cache;
+
+    public Perft() {
+        this(0);
+    }
+
+    // a cache size of 0 turns subtree caching off
+    public Perft(final long cacheSizeInMegabytes) {
+        this(cacheSizeInMegabytes > 0 ? new PerftCache(cacheSizeInMegabytes) : null);
+    }
+
+    // workers of a parallel run each own a Perft but share the cache
+    Perft(final PerftCache cache) {
+        this.cache = cache;
+    }
+
+    public long perft(final SearchBoard board, final int depth) {
+        return depth <= 0 ? 1 : count(board, depth, 0);
+    }
+
+    // leaf counts per legal root move, in generation order
+    public Map<String, Long> divide(final SearchBoard board, final int depth) {
+        checkDivideDepth(depth);
+        final Map<String, Long> divide = new LinkedHashMap<>();
+        final int[] moves = buffer(0);
+        final int moveCount = board.generateLegalMoves(moves);
+        for (int i = 0; i < moveCount; i++) {
+            board.makeMove(moves[i]);
+            divide.put(BitMove.toString(moves[i]), depth <= 1 ? 1 : count(board, depth - 1, 1));
+            board.unmakeMove();
+        }
+        return divide;
+    }
+
+    private long count(final SearchBoard board, final int depth, final int ply) {
+        final int[] moves = buffer(ply);
+        final int moveCount = board.generateLegalMoves(moves);
+
+        // bulk counting: the last ply only needs to know how many moves are legal
+        if (depth == 1) {
+            return moveCount;
+        }
+
+        if (this.cache != null) {
+            final long cached = this.cache.probe(board.getZobristKey(), depth);
+            if (cached != PerftCache.MISS) {
+                return cached;
+            }
+        }
+        long nodes = 0;
+        for (int i = 0; i < moveCount; i++) {
+            board.makeMove(moves[i]);
+            nodes += count(board, depth - 1, ply + 1);
+            board.unmakeMove();
+        }
+        if (this.cache != null) {
+            this.cache.store(board.getZobristKey(), depth, nodes);
+        }
+        return nodes;
+    }
+
+    private int[] buffer(final int ply) {
+        if (this.moveBuffers[ply] == null) {
+            this.moveBuffers[ply] = new int[SearchBoard.MAX_MOVES];
+        }
+        return this.moveBuffers[ply];
+    }
+
+    // the same count through the object model (Piece.calculateLegalMoves, Player.makeMove, Move.execute),
+    // slow but it is the gate for changes to the piece classes
+    public static long perft(final ChessBoard board, final int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        if (depth == 1) {
+            return board.currentPlayer().getLegalMoves().size();
+        }
+        long nodes = 0;
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                nodes += perft(transition.getTransitionBoard(), depth - 1);
+            }
+        }
+        return nodes;
+    }
+
+    public static Map<String, Long> divide(final ChessBoard board, final int depth) {
+        checkDivideDepth(depth);
+        final Map<String, Long> divide = new LinkedHashMap<>();
+        for (final Move move : board.currentPlayer().getLegalMoves()) {
+            final MoveTransition transition = board.currentPlayer().makeMove(move);
+            if (transition.getMoveStatus().isDone()) {
+                divide.put(BitMove.toString(BitMove.of(move)), perft(transition.getTransitionBoard(), depth - 1));
+            }
+        }
+        return divide;
+    }
+
+    // depth 0 is the root alone, it has no moves to divide by
+    private static void checkDivideDepth(final int depth) {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Divide needs a depth of at least 1, got " + depth);
+        }
+    }
+
+    // perft <depth> [--divide] [--hash <MB>] [--objects] [--threads <n>] [--fen <fen>]
+    public static void main(final String[] args) {
+        if (args.length < 1) {
+            System.out.println(USAGE);
+            return;
+        }
+        final int depth = Integer.parseInt(args[0]);
+        if (depth < 0) {
+            System.out.println(USAGE);
+            return;
+        }
+        boolean showDivide = false;
+        boolean useObjects = false;
+        long hashSize = 0;
+        int threads = 1;
+        String fen = FenUtilities.INITIAL_FEN;
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--divide":
+                    showDivide = true;
+                    break;
+                case "--objects":
+                    useObjects = true;
+                    break;
+                case "--hash":
+                    hashSize = Long.parseLong(args[++i]);
+                    break;
+                case "--threads":
+                    threads = Integer.parseInt(args[++i]);
+                    break;
+                case "--fen":
+                    // quoted or not, the FEN runs up to the next option
+                    final StringBuilder fenBuilder = new StringBuilder(args[++i]);
+                    while (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                        fenBuilder.append(' ').append(args[++i]);
+                    }
+                    fen = fenBuilder.toString();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown perft option " + args[i]);
+            }
+        }
+
+        final ChessBoard board = FenUtilities.createGameFromFEN(fen);
+        final long start = System.nanoTime();
+        final Map<String, Long> divide;
+        if (depth == 0) {
+            divide = Collections.emptyMap();
+        } else if (useObjects) {
+            divide = divide(board, depth);
+        } else if (threads > 1) {
+            final ParallelPerft.Result result = new ParallelPerft(threads, hashSize).run(board.getBitBoard(), depth);
+            System.out.println(result);
+            divide = result.getDivide();
+        } else {
+            divide = new Perft(hashSize).divide(new SearchBoard(board), depth);
+        }
+        final long elapsed = System.nanoTime() - start;
+
+        // the root is the only node at depth 0
+        long nodes = depth == 0 ? 1 : 0;
+        for (final Map.Entry<String, Long> entry : divide.entrySet()) {
+            if (showDivide) {
+                System.out.println(entry.getKey() + ": " + entry.getValue());
+            }
+            nodes += entry.getValue();
+        }
+        System.out.println("Nodes: " + nodes);
+        System.out.println("Time: " + elapsed / 1_000_000 + " ms");
+        System.out.println("Nodes/sec: " + (elapsed > 0 ? nodes * 1_000_000_000L / elapsed : 0));
+    }
+}
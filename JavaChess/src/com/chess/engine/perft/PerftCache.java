@@ -0,0 +1,43 @@
+package com.chess.engine.perft;
+
+// subtree counts keyed by Zobrist key and depth; several threads may share one cache: each slot keeps
+// (key ^ count) next to count, a slot torn by a racing write fails the check and counts as a miss
+final class PerftCache {
+
+    static final long MISS = -1L;
+
+    private final long[] checks;
+    private final long[] counts;
+    private final int mask;
+
+    PerftCache(final long sizeInMegabytes) {
+        // two longs per slot, rounded down to a power of two so the index is a mask
+        final long slots = Long.highestOneBit(Math.max(1, sizeInMegabytes * 1024 * 1024 / 16));
+        final int size = (int) Math.min(slots, 1 << 30);
+        this.checks = new long[size];
+        this.counts = new long[size];
+        this.mask = size - 1;
+    }
+
+    private static long slotKey(final long zobristKey, final int depth) {
+        return zobristKey + depth * 0x9E3779B97F4A7C15L;
+    }
+
+    long probe(final long zobristKey, final int depth) {
+        final long key = slotKey(zobristKey, depth);
+        final int index = (int) key & this.mask;
+        final long count = this.counts[index];
+        // an empty slot holds (0, 0) and would verify for key 0, so a stored count is never 0
+        return count != 0 && (this.checks[index] ^ count) == key ? count : MISS;
+    }
+
+    void store(final long zobristKey, final int depth, final long count) {
+        if (count == 0) {
+            return;
+        }
+        final long key = slotKey(zobristKey, depth);
+        final int index = (int) key & this.mask;
+        this.checks[index] = key ^ count;
+        this.counts[index] = count;
+    }
+}
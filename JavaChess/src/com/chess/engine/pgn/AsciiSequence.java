@@ -0,0 +1,46 @@
+package com.chess.engine.pgn;
+
+import java.nio.ByteBuffer;
+
+// a reusable CharSequence over bytes of a buffer, so tokens of a mapped file can be handed to the
+// notation parsers without decoding them into Strings. Only meaningful for ASCII content.
+final class AsciiSequence implements CharSequence {
+
+    private ByteBuffer buffer;
+    private int start;
+    private int length;
+
+    AsciiSequence set(final ByteBuffer buffer, final int start, final int end) {
+        this.buffer = buffer;
+        this.start = start;
+        this.length = end - start;
+        return this;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index < 0 || index >= this.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " of " + this.length);
+        }
+        return (char) (this.buffer.get(this.start + index) & 0xFF);
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        final char[] chars = new char[this.length];
+        for (int i = 0; i < this.length; i++) {
+            chars[i] = charAt(i);
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,314 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// reads the fields of a FEN (or the first four of an EPD line) in one pass over the characters, no regex,
+// no split and no substrings. An instance keeps the last parsed position and is reused for the next one,
+// so a batch allocates nothing per position until it asks for a board. Not meant to be shared between threads.
+public final class FenParser {
+
+    private static final int NUM_PIECE_TYPES = PieceType.values().length;
+    // piece letter -> alliance * 6 + piece type, -1 for any other character
+    private static final int[] PIECE_CODES = initPieceCodes();
+    private static final int ALL_CASTLING_RIGHTS = BitBoard.WHITE_KING_SIDE_CASTLE | BitBoard.WHITE_QUEEN_SIDE_CASTLE |
+            BitBoard.BLACK_KING_SIDE_CASTLE | BitBoard.BLACK_QUEEN_SIDE_CASTLE;
+
+    private final long[] pieceBitboards = new long[Alliance.values().length * NUM_PIECE_TYPES];
+    private Alliance nextMoveMaker;
+    private int castlingRights;
+    private int enPassantTile;
+    private int halfMoveClock;
+    private int fullMoveNumber;
+
+    // the source is either chars or bytes (ASCII), read between index and limit
+    private CharSequence chars;
+    private ByteBuffer bytes;
+    private int index;
+    private int limit;
+
+    private static int[] initPieceCodes() {
+        final int[] pieceCodes = new int[128];
+        Arrays.fill(pieceCodes, -1);
+        final String letters = "pnbrqk";
+        for (int pieceType = 0; pieceType < NUM_PIECE_TYPES; pieceType++) {
+            pieceCodes[Character.toUpperCase(letters.charAt(pieceType))] = Alliance.WHITE.ordinal() * NUM_PIECE_TYPES + pieceType;
+            pieceCodes[letters.charAt(pieceType)] = Alliance.BLACK.ordinal() * NUM_PIECE_TYPES + pieceType;
+        }
+        return pieceCodes;
+    }
+
+    public FenParser parse(final CharSequence fen) {
+        return parse(fen, 0, fen.length());
+    }
+
+    public FenParser parse(final CharSequence fen, final int start, final int end) {
+        this.chars = fen;
+        this.bytes = null;
+        return parse(start, end);
+    }
+
+    // from the buffer's position to its limit, the position is left untouched
+    public FenParser parse(final ByteBuffer fen) {
+        this.chars = null;
+        this.bytes = fen;
+        return parse(fen.position(), fen.limit());
+    }
+
+    private FenParser parse(final int start, final int end) {
+        this.index = start;
+        this.limit = end;
+        skipSpaces();
+        parsePiecePlacement();
+        expectSpace();
+        parseSideToMove();
+        expectSpace();
+        parseCastlingRights();
+        expectSpace();
+        parseEnPassantTile();
+        // EPD lines stop after four fields and go on with operations, the clocks are optional
+        this.halfMoveClock = 0;
+        this.fullMoveNumber = 1;
+        final int clocksStart = this.index;
+        skipSpaces();
+        if (this.index > clocksStart && isDigit(peek())) {
+            this.halfMoveClock = parseNumber();
+            skipSpaces();
+            if (isDigit(peek())) {
+                this.fullMoveNumber = Math.max(1, parseNumber());
+            }
+        } else {
+            this.index = clocksStart;
+        }
+        return this;
+    }
+
+    private void parsePiecePlacement() {
+        Arrays.fill(this.pieceBitboards, 0L);
+        int tile = 0;
+        int rowEnd = BoardUtils.NUM_TILES_PER_ROW;
+        while (true) {
+            final char c = next();
+            if (c >= '1' && c <= '8') {
+                tile += c - '0';
+            } else if (c == '/') {
+                if (tile != rowEnd || tile == BoardUtils.NUM_TILES) {
+                    throw error(this.index - 1, "Row of " + (tile - rowEnd + BoardUtils.NUM_TILES_PER_ROW) + " tiles");
+                }
+                rowEnd += BoardUtils.NUM_TILES_PER_ROW;
+            } else if (isSpace(c)) {
+                this.index--;
+                break;
+            } else {
+                final int pieceCode = c < PIECE_CODES.length ? PIECE_CODES[c] : -1;
+                if (pieceCode < 0) {
+                    throw error(this.index - 1, "Unknown piece '" + c + "'");
+                }
+                if (tile >= rowEnd) {
+                    throw error(this.index - 1, "Row of more than 8 tiles");
+                }
+                this.pieceBitboards[pieceCode] |= BoardUtils.tileMask(tile);
+                tile++;
+            }
+            if (tile > rowEnd) {
+                throw error(this.index - 1, "Row of more than 8 tiles");
+            }
+        }
+        if (tile != BoardUtils.NUM_TILES) {
+            throw error("Piece placement covers " + tile + " tiles");
+        }
+        for (final Alliance alliance : Alliance.values()) {
+            if (Long.bitCount(this.pieceBitboards[alliance.ordinal() * NUM_PIECE_TYPES + PieceType.KING.ordinal()]) != 1) {
+                throw error(alliance + " needs exactly one king");
+            }
+        }
+    }
+
+    private void parseSideToMove() {
+        final char c = next();
+        if (c == 'w') {
+            this.nextMoveMaker = Alliance.WHITE;
+        } else if (c == 'b') {
+            this.nextMoveMaker = Alliance.BLACK;
+        } else {
+            throw error(this.index - 1, "Unknown side to move '" + c + "'");
+        }
+    }
+
+    private void parseCastlingRights() {
+        this.castlingRights = 0;
+        if (peek() == '-') {
+            this.index++;
+            return;
+        }
+        while (this.index < this.limit && !isSpace(peek())) {
+            final char c = next();
+            switch (c) {
+                case 'K':
+                    this.castlingRights |= BitBoard.WHITE_KING_SIDE_CASTLE;
+                    break;
+                case 'Q':
+                    this.castlingRights |= BitBoard.WHITE_QUEEN_SIDE_CASTLE;
+                    break;
+                case 'k':
+                    this.castlingRights |= BitBoard.BLACK_KING_SIDE_CASTLE;
+                    break;
+                case 'q':
+                    this.castlingRights |= BitBoard.BLACK_QUEEN_SIDE_CASTLE;
+                    break;
+                default:
+                    throw error(this.index - 1, "Unknown castling right '" + c + "'");
+            }
+        }
+        // a right without its king and rook at home could not be played, drop it rather than carry it along
+        this.castlingRights &= castlingRightsOfPlacement();
+    }
+
+    private int castlingRightsOfPlacement() {
+        int castlingRights = ALL_CASTLING_RIGHTS;
+        if (!hasPiece(Alliance.WHITE, PieceType.KING, 60)) {
+            castlingRights &= ~(BitBoard.WHITE_KING_SIDE_CASTLE | BitBoard.WHITE_QUEEN_SIDE_CASTLE);
+        }
+        if (!hasPiece(Alliance.WHITE, PieceType.ROOK, 63)) {
+            castlingRights &= ~BitBoard.WHITE_KING_SIDE_CASTLE;
+        }
+        if (!hasPiece(Alliance.WHITE, PieceType.ROOK, 56)) {
+            castlingRights &= ~BitBoard.WHITE_QUEEN_SIDE_CASTLE;
+        }
+        if (!hasPiece(Alliance.BLACK, PieceType.KING, 4)) {
+            castlingRights &= ~(BitBoard.BLACK_KING_SIDE_CASTLE | BitBoard.BLACK_QUEEN_SIDE_CASTLE);
+        }
+        if (!hasPiece(Alliance.BLACK, PieceType.ROOK, 7)) {
+            castlingRights &= ~BitBoard.BLACK_KING_SIDE_CASTLE;
+        }
+        if (!hasPiece(Alliance.BLACK, PieceType.ROOK, 0)) {
+            castlingRights &= ~BitBoard.BLACK_QUEEN_SIDE_CASTLE;
+        }
+        return castlingRights;
+    }
+
+    private void parseEnPassantTile() {
+        this.enPassantTile = BitBoard.NO_EN_PASSANT;
+        final char column = next();
+        if (column == '-') {
+            return;
+        }
+        final char row = next();
+        if (column < 'a' || column > 'h' || row != (this.nextMoveMaker.isWhite() ? '6' : '3')) {
+            throw error(this.index - 2, "Invalid en passant tile " + column + row);
+        }
+        final int tile = (BoardUtils.NUM_TILES_PER_ROW - (row - '0')) * BoardUtils.NUM_TILES_PER_ROW + (column - 'a');
+        // writers differ on whether the tile is given when no pawn can take, keep it only if a pawn jumped there
+        final Alliance jumped = this.nextMoveMaker.opposite();
+        if (hasPiece(jumped, PieceType.PAWN, tile + jumped.getDirection() * BoardUtils.NUM_TILES_PER_ROW)) {
+            this.enPassantTile = tile;
+        }
+    }
+
+    private boolean hasPiece(final Alliance alliance, final PieceType pieceType, final int tile) {
+        return (this.pieceBitboards[alliance.ordinal() * NUM_PIECE_TYPES + pieceType.ordinal()] & BoardUtils.tileMask(tile)) != 0;
+    }
+
+    private int parseNumber() {
+        int number = 0;
+        while (this.index < this.limit && isDigit(peek())) {
+            number = number * 10 + (next() - '0');
+            if (number > 1_000_000) {
+                throw error(this.index - 1, "Move counter out of range");
+            }
+        }
+        return number;
+    }
+
+    private void expectSpace() {
+        if (this.index >= this.limit || !isSpace(peek())) {
+            throw error("Missing field");
+        }
+        skipSpaces();
+    }
+
+    private void skipSpaces() {
+        while (this.index < this.limit && isSpace(peek())) {
+            this.index++;
+        }
+    }
+
+    private static boolean isSpace(final char c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // a space past the end lets every field end at the end of the input
+    private char peek() {
+        if (this.index >= this.limit) {
+            return ' ';
+        }
+        return this.chars != null ? this.chars.charAt(this.index) : (char) (this.bytes.get(this.index) & 0xFF);
+    }
+
+    private char next() {
+        if (this.index >= this.limit) {
+            throw error("Unexpected end");
+        }
+        final char c = peek();
+        this.index++;
+        return c;
+    }
+
+    private IllegalArgumentException error(final String message) {
+        return error(this.index, message);
+    }
+
+    // errors about a character already consumed point at that character, not past it
+    private IllegalArgumentException error(final int offset, final String message) {
+        return new IllegalArgumentException("Invalid FEN at " + offset + ": " + message);
+    }
+
+    // index just past the last field read, where the operations of an EPD line begin
+    public int getEnd() {
+        return this.index;
+    }
+    public Alliance getNextMoveMaker() {
+        return this.nextMoveMaker;
+    }
+    public int getCastlingRights() {
+        return this.castlingRights;
+    }
+    public int getEnPassantTile() {
+        return this.enPassantTile;
+    }
+    public int getHalfMoveClock() {
+        return this.halfMoveClock;
+    }
+    public int getFullMoveNumber() {
+        return this.fullMoveNumber;
+    }
+
+    public BitBoard toBitBoard() {
+        final BitBoard bitBoard = BitBoard.create(this.pieceBitboards, this.nextMoveMaker, this.castlingRights, this.enPassantTile);
+        // the king of the side that just moved cannot be left attacked, move generation relies on it
+        final Alliance opponent = this.nextMoveMaker.opposite();
+        if (bitBoard.isSquareAttacked(bitBoard.getKingTile(opponent), this.nextMoveMaker)) {
+            throw new IllegalArgumentException("Invalid FEN: " + opponent + " is in check with " + this.nextMoveMaker + " to move");
+        }
+        return bitBoard;
+    }
+
+    public SearchBoard toSearchBoard() {
+        return new SearchBoard(toBitBoard(), this.halfMoveClock);
+    }
+
+    public ChessBoard toChessBoard() {
+        return toBitBoard().toChessBoard(this.halfMoveClock, this.fullMoveNumber);
+    }
+}
@@ -0,0 +1,90 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+
+// FEN import and export of whole games; batch loading should keep one FenParser and reuse it instead
+public final class FenUtilities {
+
+    public static final String INITIAL_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private FenUtilities() {
+        throw new RuntimeException("You can't instantiate me!");
+    }
+
+    public static ChessBoard createGameFromFEN(final CharSequence fen) {
+        return new FenParser().parse(fen).toChessBoard();
+    }
+
+    public static String createFENFromGame(final ChessBoard board) {
+        final StringBuilder builder = new StringBuilder(90);
+        appendFEN(builder, board.getBitBoard(), board.getHalfMoveClock(), board.getFullMoveNumber());
+        return builder.toString();
+    }
+
+    // writes into the caller's builder, so a batch can reuse one
+    public static void appendFEN(final StringBuilder builder,
+                                 final BitBoard bitBoard,
+                                 final int halfMoveClock,
+                                 final int fullMoveNumber) {
+        appendPiecePlacement(builder, bitBoard);
+        builder.append(' ').append(bitBoard.getNextMoveMaker().isWhite() ? 'w' : 'b');
+        builder.append(' ');
+        appendCastlingRights(builder, bitBoard);
+        builder.append(' ');
+        if (bitBoard.getEnPassantTile() == BitBoard.NO_EN_PASSANT) {
+            builder.append('-');
+        } else {
+            builder.append(BoardUtils.getPositionAtCoordinate(bitBoard.getEnPassantTile()));
+        }
+        builder.append(' ').append(halfMoveClock).append(' ').append(fullMoveNumber);
+    }
+
+    private static void appendPiecePlacement(final StringBuilder builder, final BitBoard bitBoard) {
+        int emptyTiles = 0;
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            final PieceType pieceType = bitBoard.getPieceTypeOn(tile);
+            if (pieceType == null) {
+                emptyTiles++;
+            } else {
+                if (emptyTiles > 0) {
+                    builder.append((char) ('0' + emptyTiles));
+                    emptyTiles = 0;
+                }
+                final char letter = pieceType.toString().charAt(0);
+                builder.append(bitBoard.getAllianceOn(tile) == Alliance.WHITE ? letter : Character.toLowerCase(letter));
+            }
+            if ((tile + 1) % BoardUtils.NUM_TILES_PER_ROW == 0) {
+                if (emptyTiles > 0) {
+                    builder.append((char) ('0' + emptyTiles));
+                    emptyTiles = 0;
+                }
+                if (tile + 1 < BoardUtils.NUM_TILES) {
+                    builder.append('/');
+                }
+            }
+        }
+    }
+
+    private static void appendCastlingRights(final StringBuilder builder, final BitBoard bitBoard) {
+        if (bitBoard.getCastlingRights() == 0) {
+            builder.append('-');
+            return;
+        }
+        if (bitBoard.canCastle(BitBoard.WHITE_KING_SIDE_CASTLE)) {
+            builder.append('K');
+        }
+        if (bitBoard.canCastle(BitBoard.WHITE_QUEEN_SIDE_CASTLE)) {
+            builder.append('Q');
+        }
+        if (bitBoard.canCastle(BitBoard.BLACK_KING_SIDE_CASTLE)) {
+            builder.append('k');
+        }
+        if (bitBoard.canCastle(BitBoard.BLACK_QUEEN_SIDE_CASTLE)) {
+            builder.append('q');
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.chess.engine.pgn;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// byte access to a file of any size through a memory mapped window that moves along with the reads;
+// only the window is mapped, so the memory used stays the same for a file of a few KB or of many GB.
+final class MappedWindow {
+
+    private static final long WINDOW_SIZE = 1L << 28;
+    // the window starts a little before the byte asked for, looking back at the previous line stays mapped
+    private static final long BACKTRACK = 1L << 16;
+
+    private final Path path;
+    private final long size;
+    private MappedByteBuffer buffer;
+    private long bufferStart;
+    private long bufferEnd;
+
+    MappedWindow(final Path path, final long size) {
+        this.path = path;
+        this.size = size;
+    }
+
+    long size() {
+        return this.size;
+    }
+
+    // the byte at the file offset, -1 past the end of the file
+    int get(final long offset) {
+        if (offset >= this.size || offset < 0) {
+            return -1;
+        }
+        if (offset < this.bufferStart || offset >= this.bufferEnd) {
+            map(Math.max(0, offset - BACKTRACK), WINDOW_SIZE);
+        }
+        return this.buffer.get((int) (offset - this.bufferStart)) & 0xFF;
+    }
+
+    // makes sure [start, end) lies in the current mapping, then buffer() and index() address it
+    void ensure(final long start, final long end) {
+        if (start < this.bufferStart || end > this.bufferEnd) {
+            map(start, Math.max(WINDOW_SIZE, end - start));
+        }
+    }
+
+    MappedByteBuffer buffer() {
+        return this.buffer;
+    }
+
+    int index(final long offset) {
+        return (int) (offset - this.bufferStart);
+    }
+
+    private void map(final long start, final long length) {
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Cannot map " + length + " bytes at once");
+        }
+        // the mapping stays valid once the channel is closed
+        try (FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ)) {
+            final long mappedLength = Math.min(length, this.size - start);
+            this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, mappedLength);
+            this.bufferStart = start;
+            this.bufferEnd = start + mappedLength;
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.Move;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+import java.util.List;
+import java.util.Map;
+
+// one game of a PGN file: its tag pairs and the main line replayed from the initial (or [FEN]) position.
+// A game whose movetext could not be replayed keeps the moves up to the offending one plus an error.
+public final class PgnGame {
+
+    private final long offset;
+    private final Map<String, String> tags;
+    private final ChessBoard initialBoard;
+    private final ChessBoard finalBoard;
+    private final List<Move> moves;
+    private final String result;
+    private final String error;
+
+    PgnGame(final long offset,
+            final Map<String, String> tags,
+            final ChessBoard initialBoard,
+            final ChessBoard finalBoard,
+            final List<Move> moves,
+            final String result,
+            final String error) {
+        this.offset = offset;
+        this.tags = ImmutableMap.copyOf(tags);
+        this.initialBoard = initialBoard;
+        this.finalBoard = finalBoard;
+        this.moves = ImmutableList.copyOf(moves);
+        this.result = result;
+        this.error = error;
+    }
+
+    // byte offset of the game in its file
+    public long getOffset() {
+        return this.offset;
+    }
+    public Map<String, String> getTags() {
+        return this.tags;
+    }
+    // null if the game has no such tag
+    public String getTag(final String name) {
+        return this.tags.get(name);
+    }
+    public ChessBoard getInitialBoard() {
+        return this.initialBoard;
+    }
+    public List<Move> getMoves() {
+        return this.moves;
+    }
+    // the position after the last replayed move
+    public ChessBoard getFinalBoard() {
+        return this.finalBoard;
+    }
+    // termination marker of the movetext, "*" if there was none
+    public String getResult() {
+        return this.result;
+    }
+    public boolean isValid() {
+        return this.error == null;
+    }
+    // null for a game replayed to its end
+    public String getError() {
+        return this.error;
+    }
+
+    @Override
+    public String toString() {
+        return getTag("White") + " - " + getTag("Black") + " " + this.result + " (" + this.moves.size() + " plies)" +
+                (this.error != null ? " " + this.error : "");
+    }
+}
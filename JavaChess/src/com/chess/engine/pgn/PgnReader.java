@@ -0,0 +1,382 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.FactoryMove;
+import com.chess.engine.board.MoveTransition;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// reads the games of a PGN file lazily, one at a time, straight from a memory mapped window over the file:
+// game boundaries, tags and movetext are scanned as bytes and only tag values become Strings.
+// A game starts with a tag line whose previous non-blank line is not a tag line. split() cuts a file into
+// ranges starting on such boundaries, each range is read by its own reader, e.g.
+// PgnReader.split(path, threads).parallelStream().flatMap(PgnReader::games).
+// A reader can be iterated any number of times; every iterator keeps its own window and is not thread safe.
+public final class PgnReader implements Iterable<PgnGame> {
+
+    private static final ChessBoard INITIAL_BOARD = ChessBoard.createInitialBoard();
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final Path path;
+    private final long size;
+    private final long start;
+    private final long end;
+
+    public PgnReader(final Path path) throws IOException {
+        this(path, 0, Files.size(path));
+    }
+
+    // the games starting in [start, end) of the file
+    public PgnReader(final Path path, final long start, final long end) throws IOException {
+        this.path = path;
+        this.size = Files.size(path);
+        if (start < 0 || start > end || end > this.size) {
+            throw new IllegalArgumentException("Range " + start + "-" + end + " outside of " + this.size + " bytes");
+        }
+        this.start = start;
+        this.end = end;
+    }
+
+    // up to parts readers over consecutive ranges of the file, each starting on a game boundary
+    public static List<PgnReader> split(final Path path, final int parts) throws IOException {
+        final long size = Files.size(path);
+        final MappedWindow window = new MappedWindow(path, size);
+        final List<PgnReader> readers = new ArrayList<>(parts);
+        long rangeStart = 0;
+        for (int i = 1; i <= parts && rangeStart < size; i++) {
+            final long rangeEnd = i == parts ? size : Math.max(rangeStart, nextGameStart(window, size / parts * i));
+            if (rangeEnd > rangeStart) {
+                readers.add(new PgnReader(path, rangeStart, rangeEnd));
+            }
+            rangeStart = rangeEnd;
+        }
+        return readers;
+    }
+
+    public long getStart() {
+        return this.start;
+    }
+    public long getEnd() {
+        return this.end;
+    }
+
+    public Stream<PgnGame> games() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    @Override
+    public Iterator<PgnGame> iterator() {
+        return new GameIterator(new MappedWindow(this.path, this.size));
+    }
+
+    // first offset at or after from where a game starts, the file size if there is none
+    private static long nextGameStart(final MappedWindow window, final long from) {
+        long lineStart = lineStartAtOrAfter(window, from);
+        while (lineStart < window.size()) {
+            if (window.get(lineStart) == '[' && !isPrecededByTag(window, lineStart)) {
+                return lineStart;
+            }
+            lineStart = nextLine(window, lineStart);
+        }
+        return window.size();
+    }
+
+    private static long lineStartAtOrAfter(final MappedWindow window, final long offset) {
+        if (offset == 0) {
+            return startOfContent(window);
+        }
+        return window.get(offset - 1) == '\n' ? offset : nextLine(window, offset);
+    }
+
+    private static long startOfContent(final MappedWindow window) {
+        for (int i = 0; i < UTF8_BOM.length; i++) {
+            if (window.get(i) != (UTF8_BOM[i] & 0xFF)) {
+                return 0;
+            }
+        }
+        return UTF8_BOM.length;
+    }
+
+    // whether the last non-blank line before lineStart is a tag line
+    private static boolean isPrecededByTag(final MappedWindow window, final long lineStart) {
+        long offset = lineStart - 1;
+        while (offset >= 0 && isWhitespace(window.get(offset))) {
+            offset--;
+        }
+        if (offset < 0) {
+            return false;
+        }
+        while (offset > 0 && window.get(offset - 1) != '\n') {
+            offset--;
+        }
+        while (isWhitespace(window.get(offset)) && window.get(offset) != '\n') {
+            offset++;
+        }
+        return window.get(offset) == '[';
+    }
+
+    private static long nextLine(final MappedWindow window, long offset) {
+        int c;
+        while ((c = window.get(offset)) >= 0 && c != '\n') {
+            offset++;
+        }
+        return c < 0 ? offset : offset + 1;
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return c == ' ' || c == '\t' || c == '\r' || c == '\n';
+    }
+
+    private final class GameIterator implements Iterator<PgnGame> {
+
+        private final MappedWindow window;
+        private final AsciiSequence token = new AsciiSequence();
+        private final Map<String, String> tags = new LinkedHashMap<>();
+        private final List<Move> moves = new ArrayList<>();
+        private byte[] text = new byte[256];
+        private long position;
+
+        private GameIterator(final MappedWindow window) {
+            this.window = window;
+            this.position = nextGameStart(window, PgnReader.this.start);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return this.position < PgnReader.this.end;
+        }
+
+        @Override
+        public PgnGame next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            final long gameStart = this.position;
+            this.tags.clear();
+            this.moves.clear();
+            long offset = readTags(gameStart);
+
+            ChessBoard initialBoard = INITIAL_BOARD;
+            String error = null;
+            final String fen = this.tags.get("FEN");
+            if (fen != null) {
+                try {
+                    initialBoard = FenUtilities.createGameFromFEN(fen);
+                } catch (final IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+            ChessBoard board = initialBoard;
+            String result = "*";
+
+            // movetext: the main line up to the result or the next game's tags, skipping comments, variations
+            // and annotation glyphs
+            boolean atLineStart = true;
+            while (true) {
+                final int c = this.window.get(offset);
+                if (c < 0 || (atLineStart && c == '[')) {
+                    break;
+                }
+                if (c == '\n') {
+                    atLineStart = true;
+                    offset++;
+                    continue;
+                }
+                if (atLineStart && c == '%') {
+                    offset = nextLine(this.window, offset);
+                    continue;
+                }
+                atLineStart = false;
+                if (isWhitespace(c)) {
+                    offset++;
+                } else if (c == '{') {
+                    offset = skipComment(offset);
+                } else if (c == ';') {
+                    offset = skipToLineEnd(offset);
+                } else if (c == '(') {
+                    offset = skipVariation(offset);
+                } else if (c == '$' || c == ')' || c == '}') {
+                    offset = tokenEnd(offset + 1);
+                } else {
+                    final long tokenStart = offset;
+                    offset = tokenEnd(offset);
+                    final String tokenResult = resultOf(tokenStart, offset);
+                    if (tokenResult != null) {
+                        result = tokenResult;
+                        offset = nextGameStart(this.window, offset);
+                        break;
+                    }
+                    final long sanStart = skipMoveNumber(tokenStart, offset);
+                    if (sanStart == offset || error != null) {
+                        continue;
+                    }
+                    this.window.ensure(sanStart, offset);
+                    this.token.set(this.window.buffer(), this.window.index(sanStart), this.window.index(offset));
+                    final Move move = SanNotation.decode(board, this.token);
+                    final MoveTransition transition = move != FactoryMove.getNullMove() ?
+                            board.currentPlayer().makeMove(move) : null;
+                    if (transition == null || !transition.getMoveStatus().isDone()) {
+                        error = "Illegal move " + this.token + " at ply " + (this.moves.size() + 1);
+                        continue;
+                    }
+                    this.moves.add(move);
+                    board = transition.getTransitionBoard();
+                }
+            }
+            this.position = offset;
+            return new PgnGame(gameStart, this.tags, initialBoard, board, this.moves, result, error);
+        }
+
+        // reads [Name "value"] lines, returns the offset of the first line after them
+        private long readTags(long offset) {
+            while (true) {
+                while (isWhitespace(this.window.get(offset))) {
+                    offset++;
+                }
+                if (this.window.get(offset) != '[') {
+                    return offset;
+                }
+                final long nameStart = offset + 1;
+                long nameEnd = nameStart;
+                int c;
+                while ((c = this.window.get(nameEnd)) >= 0 && !isWhitespace(c) && c != '"' && c != ']') {
+                    nameEnd++;
+                }
+                long valueStart = nameEnd;
+                while ((c = this.window.get(valueStart)) >= 0 && c != '"' && c != '\n') {
+                    valueStart++;
+                }
+                if (c == '"') {
+                    this.tags.put(decode(nameStart, nameEnd, false), readQuoted(valueStart + 1));
+                }
+                offset = nextLine(this.window, offset);
+            }
+        }
+
+        // the string up to the closing quote, with \" and \\ unescaped
+        private String readQuoted(long offset) {
+            int length = 0;
+            int c;
+            while ((c = this.window.get(offset)) >= 0 && c != '"' && c != '\n') {
+                if (c == '\\' && (this.window.get(offset + 1) == '"' || this.window.get(offset + 1) == '\\')) {
+                    c = this.window.get(++offset);
+                }
+                if (length == this.text.length) {
+                    this.text = Arrays.copyOf(this.text, 2 * length);
+                }
+                this.text[length++] = (byte) c;
+                offset++;
+            }
+            return new String(this.text, 0, length, StandardCharsets.UTF_8);
+        }
+
+        private String decode(final long from, final long to, final boolean ascii) {
+            final int length = (int) (to - from);
+            if (length > this.text.length) {
+                this.text = new byte[length];
+            }
+            for (int i = 0; i < length; i++) {
+                this.text[i] = (byte) this.window.get(from + i);
+            }
+            return new String(this.text, 0, length, ascii ? StandardCharsets.US_ASCII : StandardCharsets.UTF_8);
+        }
+
+        private long tokenEnd(long offset) {
+            int c;
+            while ((c = this.window.get(offset)) >= 0 && !isWhitespace(c) &&
+                    c != '{' && c != '}' && c != '(' && c != ')' && c != ';') {
+                offset++;
+            }
+            return offset;
+        }
+
+        // past the digits and dots of a move number like 12. or 12... glued to the move or standing alone
+        private long skipMoveNumber(final long tokenStart, final long tokenEnd) {
+            long offset = tokenStart;
+            while (offset < tokenEnd && Character.isDigit(this.window.get(offset))) {
+                offset++;
+            }
+            if (offset == tokenStart || offset == tokenEnd || this.window.get(offset) != '.') {
+                return tokenStart;
+            }
+            while (offset < tokenEnd && this.window.get(offset) == '.') {
+                offset++;
+            }
+            return offset;
+        }
+
+        // the game termination marker the token is, null for any other token
+        private String resultOf(final long tokenStart, final long tokenEnd) {
+            final int first = this.window.get(tokenStart);
+            if (first != '1' && first != '0' && first != '*') {
+                return null;
+            }
+            final int length = (int) (tokenEnd - tokenStart);
+            if (length != 1 && length != 3 && length != 7) {
+                return null;
+            }
+            final String token = decode(tokenStart, tokenEnd, true);
+            switch (token) {
+                case "1-0":
+                case "0-1":
+                case "1/2-1/2":
+                case "*":
+                    return token;
+                default:
+                    return null;
+            }
+        }
+
+        private long skipComment(long offset) {
+            int c;
+            while ((c = this.window.get(offset)) >= 0 && c != '}') {
+                offset++;
+            }
+            return c < 0 ? offset : offset + 1;
+        }
+
+        private long skipToLineEnd(long offset) {
+            int c;
+            while ((c = this.window.get(offset)) >= 0 && c != '\n') {
+                offset++;
+            }
+            return offset;
+        }
+
+        // variations nest and may hold comments with parentheses in them
+        private long skipVariation(long offset) {
+            int depth = 0;
+            int c;
+            while ((c = this.window.get(offset)) >= 0) {
+                if (c == '{') {
+                    offset = skipComment(offset);
+                    continue;
+                }
+                if (c == ';') {
+                    offset = skipToLineEnd(offset);
+                    continue;
+                }
+                offset++;
+                if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    break;
+                }
+            }
+            return offset;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.chess.engine.pgn;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BitBoard;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.Move.FactoryMove;
+import com.chess.engine.board.Move.PawnPromotion;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+import com.chess.engine.player.Player;
+
+// standard algebraic notation (Nbd7, exf6, e8=Q+, O-O-O) of the moves of the side to move. The moving piece is
+// found from the attack tables of the destination and checked against the player's move index, so neither
+// direction scans a move list.
+public final class SanNotation {
+
+    private static final String COLUMN_NAMES = "abcdefgh";
+    private static final long[] COLUMN_MASKS = initLineMasks(1, BoardUtils.NUM_TILES_PER_ROW);
+    private static final long[] ROW_MASKS = initLineMasks(BoardUtils.NUM_TILES_PER_ROW, 1);
+
+    private SanNotation() {
+        throw new RuntimeException("You can't instantiate me!");
+    }
+
+    public static Move decode(final ChessBoard board, final CharSequence san) {
+        return decode(board, san, 0, san.length());
+    }
+
+    // the legal move written as san[start, end), the null move if there is none or it is ambiguous
+    public static Move decode(final ChessBoard board, final CharSequence san, final int start, int end) {
+        // check, mate and annotation suffixes say nothing about the move itself
+        while (end > start && isSuffix(san.charAt(end - 1))) {
+            end--;
+        }
+        if (end - start < 2) {
+            return FactoryMove.getNullMove();
+        }
+        final char first = san.charAt(start);
+        if (first == 'O' || first == '0') {
+            return decodeCastle(board, end - start);
+        }
+
+        int index = start;
+        final PieceType pieceType = pieceTypeOf(first);
+        if (pieceType != PieceType.PAWN) {
+            index++;
+        }
+        PieceType promotionType = null;
+        final PieceType lastType = pieceTypeOf(san.charAt(end - 1));
+        if (lastType != PieceType.PAWN) {
+            promotionType = lastType;
+            end--;
+            if (end > start && san.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+        if (end - index < 2) {
+            return FactoryMove.getNullMove();
+        }
+        final int destination = tileOf(san.charAt(end - 2), san.charAt(end - 1));
+        if (destination < 0) {
+            return FactoryMove.getNullMove();
+        }
+
+        // whatever is left between piece and destination narrows down the origin: file, rank or both
+        int fromColumn = -1;
+        int fromRow = -1;
+        for (int i = index; i < end - 2; i++) {
+            final char c = san.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromColumn = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromRow = BoardUtils.NUM_TILES_PER_ROW - (c - '0');
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return FactoryMove.getNullMove();
+            }
+        }
+
+        final Player player = board.currentPlayer();
+        final BitBoard bitBoard = board.getBitBoard();
+        final Alliance us = player.getAlliance();
+        long origins;
+        if (pieceType == PieceType.PAWN && fromColumn < 0) {
+            // a push comes from one or two tiles behind, whichever pawn is closer
+            final int behind = destination - us.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+            final int twoBehind = behind - us.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+            origins = BoardUtils.isValidTileCoordinate(behind) && bitBoard.isTileOccupied(behind) ?
+                    BoardUtils.tileMask(behind) :
+                    BoardUtils.isValidTileCoordinate(twoBehind) ? BoardUtils.tileMask(twoBehind) : 0L;
+            origins &= bitBoard.getPieces(PieceType.PAWN, us);
+        } else {
+            // every other move of a piece goes to a tile the piece attacks, en passant included
+            origins = bitBoard.attackersOf(destination, us) & bitBoard.getPieces(pieceType, us);
+        }
+        if (fromColumn >= 0) {
+            origins &= COLUMN_MASKS[fromColumn];
+        }
+        if (fromRow >= 0) {
+            origins &= ROW_MASKS[fromRow];
+        }
+
+        Move found = FactoryMove.getNullMove();
+        while (origins != 0) {
+            final int from = BoardUtils.firstTile(origins);
+            origins &= origins - 1;
+            final Move move = promotionType != null ? player.getLegalMove(from, destination, promotionType) :
+                    player.getLegalMove(from, destination);
+            if (move == FactoryMove.getNullMove() || move.isCastlingMove()) {
+                continue;
+            }
+            if (found != FactoryMove.getNullMove()) {
+                return FactoryMove.getNullMove();
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    // O-O is three characters long, O-O-O five
+    private static Move decodeCastle(final ChessBoard board, final int length) {
+        if (length != 3 && length != 5) {
+            return FactoryMove.getNullMove();
+        }
+        final Player player = board.currentPlayer();
+        final int kingTile = board.getBitBoard().getKingTile(player.getAlliance());
+        final Move move = player.getLegalMove(kingTile, length == 3 ? kingTile + 2 : kingTile - 2);
+        return move.isCastlingMove() ? move : FactoryMove.getNullMove();
+    }
+
+    public static String encode(final ChessBoard board, final Move move) {
+        final StringBuilder builder = new StringBuilder(8);
+        encode(board, move, builder);
+        return builder.toString();
+    }
+
+    // appends move, a legal move of the side to move, with check or mate suffix
+    public static void encode(final ChessBoard board, final Move move, final StringBuilder builder) {
+        if (move.isCastlingMove()) {
+            builder.append(move.getDestinationCoordinate() > move.getCurrentCoordinate() ? "O-O" : "O-O-O");
+        } else {
+            final int from = move.getCurrentCoordinate();
+            final int destination = move.getDestinationCoordinate();
+            final PieceType pieceType = move.getMovedPiece().getPieceType();
+            if (pieceType == PieceType.PAWN) {
+                if (move.isAttack()) {
+                    builder.append(COLUMN_NAMES.charAt(from % BoardUtils.NUM_TILES_PER_ROW));
+                }
+            } else {
+                builder.append(pieceType.toString());
+                appendDisambiguation(board, move, builder);
+            }
+            if (move.isAttack()) {
+                builder.append('x');
+            }
+            builder.append(BoardUtils.getPositionAtCoordinate(destination));
+            if (move instanceof PawnPromotion) {
+                builder.append('=').append(((PawnPromotion) move).getPromotionType().toString());
+            }
+        }
+        final Player opponent = move.execute().currentPlayer();
+        if (opponent.isInCheck()) {
+            builder.append(opponent.isInCheckMate() ? '#' : '+');
+        }
+    }
+
+    // only when another piece of the same kind could go to the destination too: its column if that tells
+    // them apart, else its row, else both
+    private static void appendDisambiguation(final ChessBoard board, final Move move, final StringBuilder builder) {
+        final int from = move.getCurrentCoordinate();
+        final int destination = move.getDestinationCoordinate();
+        final Player player = board.currentPlayer();
+        final BitBoard bitBoard = board.getBitBoard();
+        long rivals = bitBoard.attackersOf(destination, player.getAlliance()) &
+                bitBoard.getPieces(move.getMovedPiece().getPieceType(), player.getAlliance()) & ~BoardUtils.tileMask(from);
+        boolean sameColumn = false;
+        boolean sameRow = false;
+        boolean ambiguous = false;
+        while (rivals != 0) {
+            final int rival = BoardUtils.firstTile(rivals);
+            rivals &= rivals - 1;
+            if (player.getLegalMove(rival, destination) == FactoryMove.getNullMove()) {
+                continue;
+            }
+            ambiguous = true;
+            sameColumn |= rival % BoardUtils.NUM_TILES_PER_ROW == from % BoardUtils.NUM_TILES_PER_ROW;
+            sameRow |= rival / BoardUtils.NUM_TILES_PER_ROW == from / BoardUtils.NUM_TILES_PER_ROW;
+        }
+        if (!ambiguous) {
+            return;
+        }
+        final String fromName = BoardUtils.getPositionAtCoordinate(from);
+        if (!sameColumn) {
+            builder.append(fromName.charAt(0));
+        } else if (!sameRow) {
+            builder.append(fromName.charAt(1));
+        } else {
+            builder.append(fromName);
+        }
+    }
+
+    // mask i holds the tiles i * firstStep + j * step for j in 0..7
+    private static long[] initLineMasks(final int firstStep, final int step) {
+        final long[] masks = new long[BoardUtils.NUM_TILES_PER_ROW];
+        for (int i = 0; i < BoardUtils.NUM_TILES_PER_ROW; i++) {
+            for (int j = 0; j < BoardUtils.NUM_TILES_PER_ROW; j++) {
+                masks[i] |= BoardUtils.tileMask(i * firstStep + j * step);
+            }
+        }
+        return masks;
+    }
+
+    private static boolean isSuffix(final char c) {
+        return c == '+' || c == '#' || c == '!' || c == '?';
+    }
+
+    // PAWN for anything that is not a piece letter
+    private static PieceType pieceTypeOf(final char c) {
+        switch (c) {
+            case 'N':
+                return PieceType.KNIGHT;
+            case 'B':
+                return PieceType.BISHOP;
+            case 'R':
+                return PieceType.ROOK;
+            case 'Q':
+                return PieceType.QUEEN;
+            case 'K':
+                return PieceType.KING;
+            default:
+                return PieceType.PAWN;
+        }
+    }
+
+    private static int tileOf(final char column, final char row) {
+        if (column < 'a' || column > 'h' || row < '1' || row > '8') {
+            return -1;
+        }
+        return (BoardUtils.NUM_TILES_PER_ROW - (row - '0')) * BoardUtils.NUM_TILES_PER_ROW + (column - 'a');
+    }
+}
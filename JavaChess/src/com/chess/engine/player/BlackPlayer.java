@@ -17,10 +17,9 @@ import static com.chess.engine.board.Move.*;
 public class BlackPlayer extends Player {
 
     public BlackPlayer(final ChessBoard chessBoard,
-                       final Collection<Move> whiteStandardLegalMoves,
                        final Collection<Move> blackStandardLegalMoves) {
 
-        super(chessBoard, blackStandardLegalMoves, whiteStandardLegalMoves);
+        super(chessBoard, blackStandardLegalMoves);
     }
 
     @Override
@@ -39,8 +38,7 @@ public class BlackPlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentLegals) {
+    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals) {
         final List<Move> kingCastles = new ArrayList<>();
         // first condition
         if (this.playerKing.isFirstMove() && !this.isInCheck()) {
@@ -50,8 +48,8 @@ public class BlackPlayer extends Player {
 
                 final Tile rookTile = this.chessBoard.getTile(7);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if (Player.calculateAttacksOnTile(5, opponentLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(6, opponentLegals).isEmpty() &&
+                    if (!isTileAttacked(5) &&
+                            !isTileAttacked(6) &&
                             rookTile.getPiece().getPieceType().isRook())
                         kingCastles.add(new KingSideCastleMove(this.chessBoard,
                                                                     this.playerKing,
@@ -66,7 +64,10 @@ public class BlackPlayer extends Player {
                     !this.chessBoard.getTile(3).isTileOccupied()) {
 
                 final Tile rookTile = this.chessBoard.getTile(0);
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove())
+                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
+                        !isTileAttacked(3) &&
+                        !isTileAttacked(2) &&
+                        rookTile.getPiece().getPieceType().isRook())
                     kingCastles.add(new QueenSideCastleMove(this.chessBoard,
                                                             this.playerKing,
                                          2,
@@ -1,16 +1,20 @@
 package com.chess.engine.player;
 import com.chess.engine.Alliance;
+import com.chess.engine.board.BitMove;
 import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.LegalMoveFilter;
 import com.chess.engine.board.Move;
+import com.chess.engine.board.MoveIndex;
 import com.chess.engine.board.MoveTransition;
 import com.chess.engine.chess_pieces.King;
 import com.chess.engine.chess_pieces.Piece;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+import com.google.common.base.Supplier;
+import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
 import java.util.Collection;
-import java.util.List;
-import java.util.stream.Collectors;
 
 import static com.chess.engine.board.Move.*;
 
@@ -19,16 +23,34 @@ public abstract class Player {
     protected final ChessBoard chessBoard;
     protected final King playerKing;
     protected final Collection<Move> legalMoves;
+    // moves that follow the piece rules but would leave the king attacked
+    private final Collection<Move> selfCheckMoves;
+    // built on the first lookup, a board that is only searched never needs it
+    private final Supplier<MoveIndex> moveIndex;
     private final boolean isInCheck;
 
     public Player(final ChessBoard chessBoard,
-                  final Collection<Move> legalMoves,
-                  final Collection<Move> opponentMoves) {
+                  final Collection<Move> legalMoves) {
 
         this.chessBoard = chessBoard;
         this.playerKing = establishKing();
-        this.legalMoves = ImmutableList.copyOf(Iterables.concat(legalMoves, calculateKingCastles(legalMoves, opponentMoves)));
-        this.isInCheck = !Player.calculateAttacksOnTile(this.playerKing.getPiecePosition(), opponentMoves).isEmpty();
+        // checkers and pins are computed once, then every candidate is kept or dropped without building its board
+        final LegalMoveFilter legalMoveFilter = LegalMoveFilter.create(chessBoard.getBitBoard(), getAlliance());
+        // castle analysis asks isInCheck(), so it has to be known first
+        this.isInCheck = legalMoveFilter.isInCheck();
+
+        final ImmutableList.Builder<Move> legal = ImmutableList.builder();
+        final ImmutableList.Builder<Move> selfCheck = ImmutableList.builder();
+        for (final Move move : Iterables.concat(legalMoves, calculateKingCastles(legalMoves))) {
+            if (legalMoveFilter.isLegal(BitMove.of(move))) {
+                legal.add(move);
+            } else {
+                selfCheck.add(move);
+            }
+        }
+        this.legalMoves = legal.build();
+        this.selfCheckMoves = selfCheck.build();
+        this.moveIndex = Suppliers.memoize(() -> new MoveIndex(this.legalMoves));
     }
 
     public King getPlayerKing(){
@@ -39,12 +61,9 @@ public abstract class Player {
         return this.legalMoves;
     }
 
-    protected static Collection<Move> calculateAttacksOnTile(int piecePosition, Collection<Move> moves) {
-        final List<Move> attackMoves = moves.stream()
-                .filter(move -> piecePosition == move.getDestinationCoordinate())
-                .collect(Collectors.toList());
-
-        return ImmutableList.copyOf(attackMoves);
+    // answered from the attack tables, no move list involved
+    protected boolean isTileAttacked(final int tileCoordinate) {
+        return this.chessBoard.getBitBoard().isSquareAttacked(tileCoordinate, getAlliance().opposite());
     }
 
     private King establishKing() throws RuntimeException {
@@ -56,7 +75,18 @@ public abstract class Player {
     }
 
     public boolean isMoveLegal(final Move move) {
-        return this.legalMoves.contains(move);
+        return this.moveIndex.get().contains(move);
+    }
+
+    // the legal move between the tiles (promoting to a queen), the null move if there is none
+    public Move getLegalMove(final int currentCoordinate, final int destinationCoordinate) {
+        final Move move = this.moveIndex.get().get(currentCoordinate, destinationCoordinate);
+        return move != null ? move : FactoryMove.getNullMove();
+    }
+
+    public Move getLegalMove(final int currentCoordinate, final int destinationCoordinate, final PieceType promotionType) {
+        final Move move = this.moveIndex.get().get(currentCoordinate, destinationCoordinate, promotionType);
+        return move != null ? move : FactoryMove.getNullMove();
     }
 
     // CHECK AND CHECKMATE
@@ -73,10 +103,9 @@ public abstract class Player {
         return !this.isInCheck && !hasEscapeMoves();
     }
 
+    // legal moves are already filtered for checks, no board has to be built to know if one exists
     protected boolean hasEscapeMoves() {
-        return this.legalMoves.stream()
-                .map(this::makeMove)
-                .anyMatch(transition -> transition.getMoveStatus().isDone());
+        return !this.legalMoves.isEmpty();
     }
     public boolean isCastled() {
         return false;
@@ -84,23 +113,19 @@ public abstract class Player {
 
     // board wrapping
     public MoveTransition makeMove(final Move move) {
-        if (!isMoveLegal(move)) // the illegal move
-            return new MoveTransition(this.chessBoard, move, MoveStatus.ILLEGAL_MOVE);
-
-        final ChessBoard transitionBoard = move.execute();
-        final Collection<Move> kingAttacks = Player.calculateAttacksOnTile(transitionBoard.currentPlayer()
-                .getOpponent().getPlayerKing().getPiecePosition(), transitionBoard.currentPlayer().getLegalMoves());
-
-        if (!kingAttacks.isEmpty())
-            return new MoveTransition(this.chessBoard, move, MoveStatus.LEAVES_PLAYER_IN_CHECK);
+        if (!isMoveLegal(move)) { // the illegal move
+            final MoveStatus status = this.selfCheckMoves.contains(move) ?
+                    MoveStatus.LEAVES_PLAYER_IN_CHECK : MoveStatus.ILLEGAL_MOVE;
+            return new MoveTransition(this.chessBoard, move, status);
+        }
 
         // return new transition board wrapped in a new move transition
-        return new MoveTransition(transitionBoard, move, MoveStatus.DONE);
+        return new MoveTransition(move.execute(), move, MoveStatus.DONE);
     }
 
     public abstract Collection<Piece> getActivePieces();
     public abstract Alliance getAlliance();
     public abstract Player getOpponent();
-    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals, Collection<Move> opponentLegals);
+    protected abstract Collection<Move> calculateKingCastles(Collection<Move> playerLegals);
 
 }
@@ -19,10 +19,9 @@ import static com.chess.engine.board.Move.*;
 public class WhitePlayer extends Player {
 
     public WhitePlayer(final ChessBoard chessBoard,
-                       final Collection<Move> whiteStandardLegalMoves,
-                       final Collection<Move> blackStandardLegalMoves) {
+                       final Collection<Move> whiteStandardLegalMoves) {
 
-        super(chessBoard, whiteStandardLegalMoves, blackStandardLegalMoves);
+        super(chessBoard, whiteStandardLegalMoves);
     }
 
     @Override
@@ -41,8 +40,7 @@ public class WhitePlayer extends Player {
     }
 
     @Override
-    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals,
-                                                    final Collection<Move> opponentLegals) {
+    protected Collection<Move> calculateKingCastles(final Collection<Move> playerLegals) {
         final List<Move> kingCastles = new ArrayList<>();
         // first condition
         if (this.playerKing.isFirstMove() && !this.isInCheck()) {
@@ -52,8 +50,8 @@ public class WhitePlayer extends Player {
 
                 final Tile rookTile = this.chessBoard.getTile(63);
                 if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove()) {
-                    if (Player.calculateAttacksOnTile(61, opponentLegals).isEmpty() &&
-                            Player.calculateAttacksOnTile(62, opponentLegals).isEmpty() &&
+                    if (!isTileAttacked(61) &&
+                            !isTileAttacked(62) &&
                             rookTile.getPiece().getPieceType().isRook())
                         kingCastles.add(new KingSideCastleMove(this.chessBoard,
                                                                     this.playerKing,
@@ -68,7 +66,10 @@ public class WhitePlayer extends Player {
                 !this.chessBoard.getTile(57).isTileOccupied()) {
 
                 final Tile rookTile = this.chessBoard.getTile(56);
-                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove())
+                if (rookTile.isTileOccupied() && rookTile.getPiece().isFirstMove() &&
+                        !isTileAttacked(59) &&
+                        !isTileAttacked(58) &&
+                        rookTile.getPiece().getPieceType().isRook())
                     kingCastles.add(new QueenSideCastleMove(this.chessBoard,
                                                                  this.playerKing,
                                               58,
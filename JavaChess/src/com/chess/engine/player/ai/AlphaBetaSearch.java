@@ -0,0 +1,327 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.BitMove;
+import com.chess.engine.board.ChessBoard;
+import com.chess.engine.board.Move;
+import com.chess.engine.board.SearchBoard;
+
+import java.util.Arrays;
+
+import static com.chess.engine.board.Move.FactoryMove;
+
+// negamax alpha-beta on a SearchBoard with iterative deepening, principal variation search and aspiration
+// windows. Every finished iteration replaces the result, so a search cut short by its time budget still
+// answers with the best move of the deepest completed depth. One instance searches one position at a time.
+public final class AlphaBetaSearch {
+
+    public static final int MATE_SCORE = 30000;
+    static final int MAX_SEARCH_PLY = 128;
+
+    private static final int INFINITY = 32000;
+    private static final int ASPIRATION_WINDOW = 50;
+    // mate scores beyond this are distances to mate and have to be made ply relative in the table
+    private static final int MATE_BOUND = MATE_SCORE - MAX_SEARCH_PLY;
+    private static final int TIME_CHECK_INTERVAL = 2048;
+    // Lazy SMP helpers skip depths in differently sized and phased blocks, so at any time
+    // the threads are spread over neighbouring depths instead of all repeating the same one
+    private static final int[] SKIP_SIZE = {1, 1, 2, 2, 2, 2, 3, 3, 3, 3, 3, 3, 4, 4, 4, 4, 4, 4, 4, 4};
+    private static final int[] SKIP_PHASE = {0, 1, 0, 1, 2, 3, 0, 1, 2, 3, 4, 5, 0, 1, 2, 3, 4, 5, 6, 7};
+
+    private final TranspositionTable transpositionTable;
+    private final BoardEvaluator evaluator;
+    // 0 for a search of its own or the main thread of a Lazy SMP search
+    private final int helperIndex;
+
+    private final MovePicker[] movePickers = new MovePicker[MAX_SEARCH_PLY];
+    // two quiet moves per ply that last caused a beta cutoff, tried right after the captures
+    private final int[][] killers = new int[MAX_SEARCH_PLY][2];
+    private final int[][] pvTable = new int[MAX_SEARCH_PLY][MAX_SEARCH_PLY];
+    private final int[] pvLength = new int[MAX_SEARCH_PLY];
+
+    private SearchBoard board;
+    private long nodes;
+    private long deadline;
+    private boolean timeLimited;
+    private volatile boolean stopped;
+
+    public AlphaBetaSearch(final TranspositionTable transpositionTable, final BoardEvaluator evaluator) {
+        this(transpositionTable, evaluator, 0);
+    }
+
+    AlphaBetaSearch(final TranspositionTable transpositionTable,
+                    final BoardEvaluator evaluator,
+                    final int helperIndex) {
+        this.transpositionTable = transpositionTable;
+        this.evaluator = evaluator;
+        this.helperIndex = helperIndex;
+        for (int ply = 0; ply < MAX_SEARCH_PLY; ply++) {
+            this.movePickers[ply] = new MovePicker();
+        }
+    }
+
+    public SearchResult search(final ChessBoard chessBoard, final int maxDepth) {
+        return search(chessBoard, maxDepth, 0);
+    }
+
+    // a time limit of 0 searches to maxDepth whatever it takes
+    public SearchResult search(final ChessBoard chessBoard, final int maxDepth, final long timeLimitMillis) {
+        this.transpositionTable.newSearch();
+        this.stopped = false;
+        return iterate(chessBoard, maxDepth, timeLimitMillis);
+    }
+
+    // the iterative deepening loop. It neither starts a new table generation nor clears a pending stop(),
+    // so a Lazy SMP search can stop a helper that has not started yet
+    SearchResult iterate(final ChessBoard chessBoard, final int maxDepth, final long timeLimitMillis) {
+        checkDepth(maxDepth);
+        final long start = System.nanoTime();
+        this.board = new SearchBoard(chessBoard);
+        this.nodes = 0;
+        for (final int[] plyKillers : this.killers) {
+            Arrays.fill(plyKillers, BitMove.NULL_MOVE);
+        }
+        this.timeLimited = timeLimitMillis > 0;
+        this.deadline = start + timeLimitMillis * 1_000_000;
+
+        SearchResult result = null;
+        int score = 0;
+        for (int depth = 1; depth <= Math.min(maxDepth, MAX_SEARCH_PLY - 1); depth++) {
+            if (isSkippedDepth(depth) && result != null) {
+                continue;
+            }
+            final int iterationScore = aspirationSearch(depth, score);
+            // a cut short iteration is only trusted when there is nothing else to answer with
+            if (this.stopped && result != null) {
+                break;
+            }
+            score = iterationScore;
+            final int[] pv = Arrays.copyOf(this.pvTable[0], this.pvLength[0]);
+            result = new SearchResult(toMove(chessBoard, pv.length > 0 ? pv[0] : BitMove.NULL_MOVE), score, depth,
+                    this.nodes, pv, (System.nanoTime() - start) / 1_000_000);
+            if (this.stopped || Math.abs(score) >= MATE_BOUND) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    // every result comes from a finished (or stopped) iteration, so there has to be at least one
+    static void checkDepth(final int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Search needs a depth of at least 1, got " + maxDepth);
+        }
+    }
+
+    private boolean isSkippedDepth(final int depth) {
+        if (this.helperIndex == 0) {
+            return false;
+        }
+        final int index = (this.helperIndex - 1) % SKIP_SIZE.length;
+        return ((depth + SKIP_PHASE[index]) / SKIP_SIZE[index]) % 2 != 0;
+    }
+
+    // asks a running search to return as soon as possible
+    public void stop() {
+        this.stopped = true;
+    }
+
+    void clearStop() {
+        this.stopped = false;
+    }
+
+    public long getNodes() {
+        return this.nodes;
+    }
+
+    // starts with a narrow window around the previous score and widens it on the side that failed
+    private int aspirationSearch(final int depth, final int previousScore) {
+        if (depth < 4) {
+            return negamax(depth, -INFINITY, INFINITY, 0, true);
+        }
+        int delta = ASPIRATION_WINDOW;
+        int alpha = Math.max(previousScore - delta, -INFINITY);
+        int beta = Math.min(previousScore + delta, INFINITY);
+        while (true) {
+            final int score = negamax(depth, alpha, beta, 0, true);
+            if (this.stopped) {
+                return score;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(score - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(score + delta, INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    private int negamax(int depth, int alpha, final int beta, final int ply, final boolean isPvNode) {
+        this.pvLength[ply] = ply;
+        if (ply > 0 && this.board.isDrawByRule()) {
+            return 0;
+        }
+        if (depth <= 0) {
+            return quiescence(alpha, beta, ply);
+        }
+        if (isOutOfTime()) {
+            return 0;
+        }
+        this.nodes++;
+        if (ply >= MAX_SEARCH_PLY - 1) {
+            return this.evaluator.evaluate(this.board);
+        }
+
+        final long key = this.board.getZobristKey();
+        final long entry = this.transpositionTable.probe(key);
+        int hashMove = BitMove.NULL_MOVE;
+        if (entry != TranspositionTable.MISS) {
+            hashMove = TranspositionTable.getMove(entry);
+            if (!isPvNode && TranspositionTable.getDepth(entry) >= depth) {
+                final int hashScore = fromTableScore(TranspositionTable.getScore(entry), ply);
+                final int bound = TranspositionTable.getBound(entry);
+                if (bound == TranspositionTable.EXACT ||
+                        (bound == TranspositionTable.LOWER_BOUND && hashScore >= beta) ||
+                        (bound == TranspositionTable.UPPER_BOUND && hashScore <= alpha)) {
+                    return hashScore;
+                }
+            }
+        }
+
+        final boolean inCheck = this.board.isInCheck();
+        if (inCheck) {
+            depth++;
+        }
+
+        final MovePicker movePicker = this.movePickers[ply];
+        movePicker.init(this.board, hashMove, this.killers[ply][0], this.killers[ply][1]);
+
+        final int originalAlpha = alpha;
+        int bestScore = -INFINITY;
+        int bestMove = BitMove.NULL_MOVE;
+        int legalMoves = 0;
+        int move;
+        while ((move = movePicker.next()) != BitMove.NULL_MOVE) {
+            if (!this.board.makeMove(move)) {
+                continue;
+            }
+            legalMoves++;
+            int score;
+            if (legalMoves == 1) {
+                score = -negamax(depth - 1, -beta, -alpha, ply + 1, isPvNode);
+            } else {
+                // zero window probe, searched again with the full window only if it beats alpha
+                score = -negamax(depth - 1, -alpha - 1, -alpha, ply + 1, false);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, -beta, -alpha, ply + 1, true);
+                }
+            }
+            this.board.unmakeMove();
+            if (this.stopped) {
+                return 0;
+            }
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePrincipalVariation(ply, move);
+                    if (alpha >= beta) {
+                        updateKillers(ply, move);
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (legalMoves == 0) {
+            return inCheck ? -MATE_SCORE + ply : 0;
+        }
+
+        final int bound = bestScore >= beta ? TranspositionTable.LOWER_BOUND :
+                bestScore > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        this.transpositionTable.store(key, bestMove, toTableScore(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    // captures and promotions only, until the position is quiet enough to trust the static evaluation
+    private int quiescence(int alpha, final int beta, final int ply) {
+        if (isOutOfTime()) {
+            return 0;
+        }
+        this.nodes++;
+        final int standPat = this.evaluator.evaluate(this.board);
+        if (ply >= MAX_SEARCH_PLY - 1 || standPat >= beta) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        final MovePicker movePicker = this.movePickers[ply];
+        movePicker.initCaptures(this.board);
+        int move;
+        while ((move = movePicker.next()) != BitMove.NULL_MOVE) {
+            if (!this.board.makeMove(move)) {
+                continue;
+            }
+            final int score = -quiescence(-beta, -alpha, ply + 1);
+            this.board.unmakeMove();
+            if (this.stopped) {
+                return 0;
+            }
+            if (score > alpha) {
+                if (score >= beta) {
+                    return score;
+                }
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    private void updateKillers(final int ply, final int move) {
+        if (BitMove.isAttack(move) || BitMove.isPromotion(move) || this.killers[ply][0] == move) {
+            return;
+        }
+        this.killers[ply][1] = this.killers[ply][0];
+        this.killers[ply][0] = move;
+    }
+
+    private void updatePrincipalVariation(final int ply, final int move) {
+        this.pvTable[ply][ply] = move;
+        for (int next = ply + 1; next < this.pvLength[ply + 1]; next++) {
+            this.pvTable[ply][next] = this.pvTable[ply + 1][next];
+        }
+        this.pvLength[ply] = Math.max(this.pvLength[ply + 1], ply + 1);
+    }
+
+    private boolean isOutOfTime() {
+        if (this.timeLimited && (this.nodes % TIME_CHECK_INTERVAL) == 0 && System.nanoTime() > this.deadline) {
+            this.stopped = true;
+        }
+        return this.stopped;
+    }
+
+    // table scores for mates count from the stored node, search scores count from the root
+    private static int toTableScore(final int score, final int ply) {
+        return score >= MATE_BOUND ? score + ply : score <= -MATE_BOUND ? score - ply : score;
+    }
+
+    private static int fromTableScore(final int score, final int ply) {
+        return score >= MATE_BOUND ? score - ply : score <= -MATE_BOUND ? score + ply : score;
+    }
+
+    private static Move toMove(final ChessBoard chessBoard, final int move) {
+        if (move == BitMove.NULL_MOVE) {
+            return FactoryMove.getNullMove();
+        }
+        for (final Move legalMove : chessBoard.currentPlayer().getLegalMoves()) {
+            if (BitMove.of(legalMove) == move) {
+                return legalMove;
+            }
+        }
+        return FactoryMove.getNullMove();
+    }
+}
@@ -0,0 +1,9 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.SearchBoard;
+
+public interface BoardEvaluator {
+
+    // centipawns from the point of view of the side to move
+    int evaluate(SearchBoard board);
+}
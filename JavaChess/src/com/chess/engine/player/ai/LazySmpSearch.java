@@ -0,0 +1,98 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.ChessBoard;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Lazy SMP: helper threads search the same root as the main thread with no coordination but the shared
+// lock-free TranspositionTable. Their entries cut off and order the main thread's search, and the helpers
+// skip depths so they run ahead of it. Only the main thread's result is reported; the helpers are stopped
+// as soon as it finishes. One instance runs one search at a time.
+public final class LazySmpSearch {
+
+    private final TranspositionTable transpositionTable;
+    private final AlphaBetaSearch[] searches;
+
+    // the evaluator is shared by all threads and has to be thread safe
+    public LazySmpSearch(final TranspositionTable transpositionTable,
+                         final BoardEvaluator evaluator,
+                         final int maxThreads) {
+        if (maxThreads < 1) {
+            throw new IllegalArgumentException("Lazy SMP needs at least 1 thread, got " + maxThreads);
+        }
+        this.transpositionTable = transpositionTable;
+        this.searches = new AlphaBetaSearch[maxThreads];
+        for (int i = 0; i < maxThreads; i++) {
+            this.searches[i] = new AlphaBetaSearch(transpositionTable, evaluator, i);
+        }
+    }
+
+    public LazySmpSearch(final TranspositionTable transpositionTable, final BoardEvaluator evaluator) {
+        this(transpositionTable, evaluator, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SearchResult search(final ChessBoard chessBoard, final int maxDepth, final long timeLimitMillis) {
+        return search(chessBoard, maxDepth, timeLimitMillis, this.searches.length);
+    }
+
+    // threads is capped by the maxThreads the instance was built with, the calling thread counts as one
+    public SearchResult search(final ChessBoard chessBoard,
+                               final int maxDepth,
+                               final long timeLimitMillis,
+                               final int threads) {
+        AlphaBetaSearch.checkDepth(maxDepth);
+        final int threadCount = Math.max(1, Math.min(threads, this.searches.length));
+        final AlphaBetaSearch mainSearch = this.searches[0];
+        this.transpositionTable.newSearch();
+        for (int i = 0; i < threadCount; i++) {
+            this.searches[i].clearStop();
+        }
+        if (threadCount == 1) {
+            return mainSearch.iterate(chessBoard, maxDepth, timeLimitMillis);
+        }
+
+        final ExecutorService pool = Executors.newFixedThreadPool(threadCount - 1);
+        final List<Future<SearchResult>> helpers = new ArrayList<>();
+        try {
+            for (int i = 1; i < threadCount; i++) {
+                final AlphaBetaSearch helper = this.searches[i];
+                // helpers run until the main thread is done, whatever depth that takes
+                helpers.add(pool.submit(() -> helper.iterate(chessBoard, AlphaBetaSearch.MAX_SEARCH_PLY, 0)));
+            }
+            final SearchResult result = mainSearch.iterate(chessBoard, maxDepth, timeLimitMillis);
+            long nodes = result.getNodes();
+            for (int i = 1; i < threadCount; i++) {
+                this.searches[i].stop();
+            }
+            for (int i = 1; i < threadCount; i++) {
+                helpers.get(i - 1).get();
+                nodes += this.searches[i].getNodes();
+            }
+            return result.withNodes(nodes);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for helper threads", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Helper search failed", e.getCause());
+        } finally {
+            for (int i = 1; i < threadCount; i++) {
+                this.searches[i].stop();
+            }
+            pool.shutdown();
+        }
+    }
+
+    // stops the main thread, which then stops the helpers
+    public void stop() {
+        this.searches[0].stop();
+    }
+
+    public int getMaxThreads() {
+        return this.searches.length;
+    }
+}
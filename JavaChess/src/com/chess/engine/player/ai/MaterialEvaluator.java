@@ -0,0 +1,23 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+
+// plain material count, enough for the search to prefer winning material
+public final class MaterialEvaluator implements BoardEvaluator {
+
+    private static final int[] PIECE_VALUES = {100, 320, 330, 500, 900, 0};
+    private static final PieceType[] PIECE_TYPES = PieceType.values();
+
+    @Override
+    public int evaluate(final SearchBoard board) {
+        int score = 0;
+        for (final PieceType pieceType : PIECE_TYPES) {
+            score += PIECE_VALUES[pieceType.ordinal()] *
+                    (Long.bitCount(board.getPieces(pieceType, Alliance.WHITE)) -
+                     Long.bitCount(board.getPieces(pieceType, Alliance.BLACK)));
+        }
+        return board.getNextMoveMaker().isWhite() ? score : -score;
+    }
+}
@@ -0,0 +1,151 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.BitMove;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+
+// hands out the moves of one node stage by stage: hash move, captures by most valuable victim / least
+// valuable attacker, killer moves, then the quiet moves. A stage is generated only once the previous one
+// is used up, so a node cut off by its first move or two never generates the quiet moves at all.
+// Moves are pseudo legal, the search still has to reject those leaving the king in check.
+final class MovePicker {
+
+    private static final int HASH_MOVE = 0;
+    private static final int GENERATE_CAPTURES = 1;
+    private static final int CAPTURES = 2;
+    private static final int FIRST_KILLER = 3;
+    private static final int SECOND_KILLER = 4;
+    private static final int GENERATE_QUIETS = 5;
+    private static final int QUIETS = 6;
+    private static final int DONE = 7;
+
+    private static final int[] ORDER_VALUES = {1, 3, 3, 5, 9, 20};
+
+    private final int[] moves = new int[SearchBoard.MAX_MOVES];
+    private final int[] scores = new int[SearchBoard.MAX_MOVES];
+
+    private SearchBoard board;
+    private int hashMove;
+    private int firstKiller;
+    private int secondKiller;
+    private boolean capturesOnly;
+    private int stage;
+    private int index;
+    private int count;
+
+    // all moves, for a full width node
+    void init(final SearchBoard board, final int hashMove, final int firstKiller, final int secondKiller) {
+        this.board = board;
+        this.hashMove = board.isPseudoLegal(hashMove) ? hashMove : BitMove.NULL_MOVE;
+        this.firstKiller = firstKiller;
+        this.secondKiller = secondKiller;
+        this.capturesOnly = false;
+        this.stage = HASH_MOVE;
+    }
+
+    // captures and promotions only, for quiescence
+    void initCaptures(final SearchBoard board) {
+        this.board = board;
+        this.hashMove = BitMove.NULL_MOVE;
+        this.capturesOnly = true;
+        this.stage = GENERATE_CAPTURES;
+    }
+
+    // NULL_MOVE once every stage is used up
+    int next() {
+        while (true) {
+            switch (this.stage) {
+                case HASH_MOVE:
+                    this.stage = GENERATE_CAPTURES;
+                    if (this.hashMove != BitMove.NULL_MOVE) {
+                        return this.hashMove;
+                    }
+                    break;
+                case GENERATE_CAPTURES:
+                    this.count = this.board.generateCaptures(this.moves, 0);
+                    this.index = 0;
+                    scoreCaptures();
+                    this.stage = CAPTURES;
+                    break;
+                case CAPTURES:
+                    while (this.index < this.count) {
+                        final int move = pickBest();
+                        if (move != this.hashMove) {
+                            return move;
+                        }
+                    }
+                    this.stage = this.capturesOnly ? DONE : FIRST_KILLER;
+                    break;
+                case FIRST_KILLER:
+                    this.stage = SECOND_KILLER;
+                    if (isPlayableKiller(this.firstKiller)) {
+                        return this.firstKiller;
+                    }
+                    break;
+                case SECOND_KILLER:
+                    this.stage = GENERATE_QUIETS;
+                    if (this.secondKiller != this.firstKiller && isPlayableKiller(this.secondKiller)) {
+                        return this.secondKiller;
+                    }
+                    break;
+                case GENERATE_QUIETS:
+                    this.count = this.board.generateQuiets(this.moves, 0);
+                    this.index = 0;
+                    this.stage = QUIETS;
+                    break;
+                case QUIETS:
+                    while (this.index < this.count) {
+                        final int move = this.moves[this.index++];
+                        if (move != this.hashMove && move != this.firstKiller && move != this.secondKiller) {
+                            return move;
+                        }
+                    }
+                    this.stage = DONE;
+                    break;
+                default:
+                    return BitMove.NULL_MOVE;
+            }
+        }
+    }
+
+    // killers are quiet moves from sibling nodes; the quiet stage skips them, so only valid ones may be returned here
+    private boolean isPlayableKiller(final int killer) {
+        return killer != BitMove.NULL_MOVE && killer != this.hashMove &&
+                !BitMove.isAttack(killer) && !BitMove.isPromotion(killer) && this.board.isPseudoLegal(killer);
+    }
+
+    private void scoreCaptures() {
+        for (int i = 0; i < this.count; i++) {
+            final int move = this.moves[i];
+            if (BitMove.isAttack(move)) {
+                // en passant finds no piece on its destination, the victim is a pawn
+                final PieceType victim = this.board.getPieceTypeOn(BitMove.getDestinationCoordinate(move));
+                final PieceType attacker = this.board.getPieceTypeOn(BitMove.getCurrentCoordinate(move));
+                this.scores[i] = 10 * ORDER_VALUES[victim == null ? 0 : victim.ordinal()] - ORDER_VALUES[attacker.ordinal()];
+            } else {
+                this.scores[i] = 0;
+            }
+            if (BitMove.isPromotion(move)) {
+                this.scores[i] += 10 * ORDER_VALUES[BitMove.getPromotionType(move).ordinal()];
+            }
+        }
+    }
+
+    // selection sort step: moves the best remaining capture to index and returns it
+    private int pickBest() {
+        int best = this.index;
+        for (int i = this.index + 1; i < this.count; i++) {
+            if (this.scores[i] > this.scores[best]) {
+                best = i;
+            }
+        }
+        final int move = this.moves[best];
+        final int score = this.scores[best];
+        this.moves[best] = this.moves[this.index];
+        this.scores[best] = this.scores[this.index];
+        this.moves[this.index] = move;
+        this.scores[this.index] = score;
+        this.index++;
+        return move;
+    }
+}
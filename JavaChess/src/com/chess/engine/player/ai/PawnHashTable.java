@@ -0,0 +1,51 @@
+package com.chess.engine.player.ai;
+
+import java.util.Arrays;
+
+// small fixed-size cache of pawn structure scores keyed by the pawn key of a position (pawns and kings only).
+// The same few structures come back over and over in a search, so nearly every probe hits.
+// Like the TranspositionTable it is shared without locks: each entry stores key ^ data next to data and a
+// torn write reads as a miss.
+public final class PawnHashTable {
+
+    public static final long MISS = 0L;
+
+    // set in every stored entry, a score of 0 is still told apart from MISS
+    private static final long STORED = 1L << 32;
+
+    private final long[] entries;
+    private final int indexMask;
+
+    public PawnHashTable(final int sizeInKilobytes) {
+        if (sizeInKilobytes < 1) {
+            throw new IllegalArgumentException("Pawn hash table needs at least 1 KB, got " + sizeInKilobytes);
+        }
+        // largest power of two number of entries of two longs that fits the requested size
+        final int size = Integer.highestOneBit(sizeInKilobytes * 1024 / 16);
+        this.entries = new long[2 * size];
+        this.indexMask = size - 1;
+    }
+
+    public static int getScore(final long entry) {
+        return (int) entry;
+    }
+
+    // stored entry for the pawn key, or MISS
+    public long probe(final long pawnKey) {
+        final int index = 2 * ((int) pawnKey & this.indexMask);
+        final long data = this.entries[index + 1];
+        return (this.entries[index] ^ data) == pawnKey && data != MISS ? data : MISS;
+    }
+
+    // always replaces, an entry is cheap to compute again
+    public void store(final long pawnKey, final int score) {
+        final int index = 2 * ((int) pawnKey & this.indexMask);
+        final long data = (score & 0xFFFFFFFFL) | STORED;
+        this.entries[index] = pawnKey ^ data;
+        this.entries[index + 1] = data;
+    }
+
+    public void clear() {
+        Arrays.fill(this.entries, 0L);
+    }
+}
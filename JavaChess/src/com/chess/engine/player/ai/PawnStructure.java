@@ -0,0 +1,113 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.BoardUtils;
+import com.chess.engine.board.LeaperAttacks;
+import com.chess.engine.board.PieceSquareTables;
+
+// pawn structure terms: doubled, isolated, backward and passed pawns plus the pawn shield in front of each king.
+// The result depends on the pawns and kings only, which is what lets PawnHashTable cache it per pawn key.
+// Scores are packed middlegame and endgame halves like PieceSquareTables, white positive.
+public final class PawnStructure {
+
+    private static final int DOUBLED = PieceSquareTables.pack(-10, -25);
+    private static final int ISOLATED = PieceSquareTables.pack(-12, -18);
+    private static final int BACKWARD = PieceSquareTables.pack(-8, -12);
+    // by rank counted from the pawn's own side
+    private static final int[] PASSED = {
+            0,
+            PieceSquareTables.pack(5, 10),
+            PieceSquareTables.pack(10, 20),
+            PieceSquareTables.pack(15, 35),
+            PieceSquareTables.pack(25, 60),
+            PieceSquareTables.pack(40, 95),
+            PieceSquareTables.pack(60, 140),
+            0
+    };
+    // the shield only matters while there are pieces left to attack the king
+    private static final int SHIELD_NEAR = PieceSquareTables.pack(12, 0);
+    private static final int SHIELD_FAR = PieceSquareTables.pack(6, 0);
+
+    private static final int WHITE = Alliance.WHITE.ordinal();
+    private static final int BLACK = Alliance.BLACK.ordinal();
+
+    // per alliance and tile, "ahead" is the direction the alliance's pawns move in
+    private static final long[] ADJACENT_COLUMNS = new long[BoardUtils.NUM_TILES];
+    private static final long[][] FORWARD_SPANS = new long[2][BoardUtils.NUM_TILES];
+    private static final long[][] PASSED_MASKS = new long[2][BoardUtils.NUM_TILES];
+    // adjacent columns level with or behind the tile, where the pawns that could still defend it stand
+    private static final long[][] SUPPORT_MASKS = new long[2][BoardUtils.NUM_TILES];
+    private static final long[][] SHIELD_NEAR_MASKS = new long[2][BoardUtils.NUM_TILES];
+    private static final long[][] SHIELD_FAR_MASKS = new long[2][BoardUtils.NUM_TILES];
+
+    static {
+        for (int tile = 0; tile < BoardUtils.NUM_TILES; tile++) {
+            final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+            final int column = tile % BoardUtils.NUM_TILES_PER_ROW;
+            for (int other = 0; other < BoardUtils.NUM_TILES; other++) {
+                final int otherRow = other / BoardUtils.NUM_TILES_PER_ROW;
+                final int columnDistance = Math.abs(other % BoardUtils.NUM_TILES_PER_ROW - column);
+                final long mask = BoardUtils.tileMask(other);
+                if (columnDistance == 1) {
+                    ADJACENT_COLUMNS[tile] |= mask;
+                    SUPPORT_MASKS[WHITE][tile] |= otherRow >= row ? mask : 0L;
+                    SUPPORT_MASKS[BLACK][tile] |= otherRow <= row ? mask : 0L;
+                }
+                if (columnDistance <= 1) {
+                    PASSED_MASKS[WHITE][tile] |= otherRow < row ? mask : 0L;
+                    PASSED_MASKS[BLACK][tile] |= otherRow > row ? mask : 0L;
+                    SHIELD_NEAR_MASKS[WHITE][tile] |= otherRow == row - 1 ? mask : 0L;
+                    SHIELD_NEAR_MASKS[BLACK][tile] |= otherRow == row + 1 ? mask : 0L;
+                    SHIELD_FAR_MASKS[WHITE][tile] |= otherRow == row - 2 ? mask : 0L;
+                    SHIELD_FAR_MASKS[BLACK][tile] |= otherRow == row + 2 ? mask : 0L;
+                }
+                if (columnDistance == 0) {
+                    FORWARD_SPANS[WHITE][tile] |= otherRow < row ? mask : 0L;
+                    FORWARD_SPANS[BLACK][tile] |= otherRow > row ? mask : 0L;
+                }
+            }
+        }
+    }
+
+    private PawnStructure() {
+        throw new RuntimeException("You can't instantiate me!");
+    }
+
+    public static int evaluate(final long whitePawns, final long blackPawns, final long whiteKing, final long blackKing) {
+        return evaluate(Alliance.WHITE, whitePawns, blackPawns, whiteKing) -
+               evaluate(Alliance.BLACK, blackPawns, whitePawns, blackKing);
+    }
+
+    // the terms of one side, positive when they favour it
+    private static int evaluate(final Alliance alliance, final long pawns, final long enemyPawns, final long king) {
+        final int us = alliance.ordinal();
+        int score = 0;
+        long remaining = pawns;
+        while (remaining != 0) {
+            final int tile = BoardUtils.firstTile(remaining);
+            remaining &= remaining - 1;
+            // only the rear pawn of a doubled pair counts, the front one can still advance freely
+            if ((FORWARD_SPANS[us][tile] & pawns) != 0) {
+                score += DOUBLED;
+            } else if ((PASSED_MASKS[us][tile] & enemyPawns) == 0) {
+                final int row = tile / BoardUtils.NUM_TILES_PER_ROW;
+                score += PASSED[alliance.isWhite() ? BoardUtils.NUM_TILES_PER_ROW - 1 - row : row];
+            }
+            if ((ADJACENT_COLUMNS[tile] & pawns) == 0) {
+                score += ISOLATED;
+            } else if ((SUPPORT_MASKS[us][tile] & pawns) == 0) {
+                // no pawn can come up to defend it and an enemy pawn guards the tile it would advance to
+                final int stopTile = tile + alliance.getDirection() * BoardUtils.NUM_TILES_PER_ROW;
+                if ((LeaperAttacks.pawnAttacks(stopTile, alliance) & enemyPawns) != 0) {
+                    score += BACKWARD;
+                }
+            }
+        }
+        if (king != 0) {
+            final int kingTile = BoardUtils.firstTile(king);
+            score += SHIELD_NEAR * Long.bitCount(SHIELD_NEAR_MASKS[us][kingTile] & pawns) +
+                     SHIELD_FAR * Long.bitCount(SHIELD_FAR_MASKS[us][kingTile] & pawns);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,43 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.Alliance;
+import com.chess.engine.board.PieceSquareTables;
+import com.chess.engine.board.SearchBoard;
+import com.chess.engine.chess_pieces.Piece.PieceType;
+
+// tapered material, piece-square and pawn structure evaluation. Both boards carry the piece-square totals
+// along with their moves and the pawn structure terms come from a PawnHashTable, so evaluating a leaf is
+// mostly one table probe and a blend of the middlegame and endgame halves by the game phase.
+public final class PieceSquareEvaluator implements BoardEvaluator {
+
+    private static final int DEFAULT_PAWN_HASH_SIZE = 512;
+
+    private final PawnHashTable pawnHashTable;
+
+    public PieceSquareEvaluator() {
+        this(new PawnHashTable(DEFAULT_PAWN_HASH_SIZE));
+    }
+
+    // the table may be shared by all search threads
+    public PieceSquareEvaluator(final PawnHashTable pawnHashTable) {
+        this.pawnHashTable = pawnHashTable;
+    }
+
+    @Override
+    public int evaluate(final SearchBoard board) {
+        final int score = PieceSquareTables.taper(board.getPieceSquareScore() + pawnScore(board), board.getGamePhase());
+        return board.getNextMoveMaker().isWhite() ? score : -score;
+    }
+
+    private int pawnScore(final SearchBoard board) {
+        final long entry = this.pawnHashTable.probe(board.getPawnKey());
+        if (entry != PawnHashTable.MISS) {
+            return PawnHashTable.getScore(entry);
+        }
+        final int score = PawnStructure.evaluate(
+                board.getPieces(PieceType.PAWN, Alliance.WHITE), board.getPieces(PieceType.PAWN, Alliance.BLACK),
+                board.getPieces(PieceType.KING, Alliance.WHITE), board.getPieces(PieceType.KING, Alliance.BLACK));
+        this.pawnHashTable.store(board.getPawnKey(), score);
+        return score;
+    }
+}
@@ -0,0 +1,71 @@
+package com.chess.engine.player.ai;
+
+import com.chess.engine.board.BitMove;
+import com.chess.engine.board.Move;
+
+// outcome of the deepest completed iteration of a search
+public final class SearchResult {
+
+    private final Move bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final int[] principalVariation;
+    private final long elapsedMillis;
+
+    SearchResult(final Move bestMove,
+                 final int score,
+                 final int depth,
+                 final long nodes,
+                 final int[] principalVariation,
+                 final long elapsedMillis) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.principalVariation = principalVariation;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // same result with the node count of every thread that took part
+    SearchResult withNodes(final long totalNodes) {
+        return new SearchResult(this.bestMove, this.score, this.depth, totalNodes,
+                this.principalVariation, this.elapsedMillis);
+    }
+
+    // null move if the side to move has no legal move
+    public Move getBestMove() {
+        return this.bestMove;
+    }
+    // centipawns for the side to move, mates are reported as +/- (MATE_SCORE - plies to mate)
+    public int getScore() {
+        return this.score;
+    }
+    public int getDepth() {
+        return this.depth;
+    }
+    public long getNodes() {
+        return this.nodes;
+    }
+    // packed moves, see BitMove
+    public int[] getPrincipalVariation() {
+        return this.principalVariation.clone();
+    }
+    public long getElapsedMillis() {
+        return this.elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder();
+        builder.append("depth ").append(this.depth)
+                .append(" score ").append(this.score)
+                .append(" nodes ").append(this.nodes)
+                .append(" time ").append(this.elapsedMillis)
+                .append(" pv");
+        for (final int move : this.principalVariation) {
+            builder.append(' ').append(BitMove.toString(move));
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,154 @@
+package com.chess.engine.player.ai;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// shared hash table of search results keyed by the Zobrist key of a position.
+// Entries are two longs in direct (off heap) buffers, so even a table of several gigabytes is invisible
+// to the garbage collector. Threads read and write without locks: each entry stores key ^ data next to
+// data, a torn write from two racing threads no longer verifies and simply reads as a miss.
+public final class TranspositionTable {
+
+    public static final long MISS = 0L;
+
+    // bound kinds, never 0 so that a stored entry is never equal to MISS
+    public static final int UPPER_BOUND = 1;
+    public static final int LOWER_BOUND = 2;
+    public static final int EXACT = 3;
+
+    private static final int ENTRY_SIZE = 16;
+    private static final int ENTRIES_PER_BUCKET = 4;
+    // one bucket fills a typical 64 byte cache line
+    private static final int BUCKET_SIZE = ENTRY_SIZE * ENTRIES_PER_BUCKET;
+    // a single buffer is addressed by int, so big tables are split in 1 GB segments
+    private static final int SEGMENT_SHIFT = 30;
+    private static final int BUCKETS_PER_SEGMENT = (1 << SEGMENT_SHIFT) / BUCKET_SIZE;
+    private static final int AGE_MASK = 0x3F;
+
+    private final ByteBuffer[] segments;
+    private final long bucketMask;
+    private volatile int age;
+
+    public TranspositionTable(final long sizeInMegabytes) {
+        if (sizeInMegabytes < 1) {
+            throw new IllegalArgumentException("Transposition table needs at least 1 MB, got " + sizeInMegabytes);
+        }
+        // largest power of two number of buckets that fits the requested size
+        final long buckets = Long.highestOneBit(sizeInMegabytes * 1024 * 1024 / BUCKET_SIZE);
+        this.bucketMask = buckets - 1;
+        final int segmentCount = (int) Math.max(1, buckets / BUCKETS_PER_SEGMENT);
+        final int segmentSize = (int) (Math.min(buckets, BUCKETS_PER_SEGMENT) * BUCKET_SIZE);
+        this.segments = new ByteBuffer[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = ByteBuffer.allocateDirect(segmentSize).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    public static int getMove(final long entry) {
+        return (int) (entry & 0xFFFF);
+    }
+    public static int getScore(final long entry) {
+        return (short) (entry >>> 16);
+    }
+    public static int getDepth(final long entry) {
+        return (int) ((entry >>> 32) & 0xFF);
+    }
+    public static int getBound(final long entry) {
+        return (int) ((entry >>> 40) & 0x3);
+    }
+    private static int getAge(final long entry) {
+        return (int) ((entry >>> 42) & AGE_MASK);
+    }
+
+    private static long pack(final int move, final int score, final int depth, final int bound, final int age) {
+        return (move & 0xFFFFL) |
+                (score & 0xFFFFL) << 16 |
+                (long) (depth & 0xFF) << 32 |
+                (long) bound << 40 |
+                (long) age << 42;
+    }
+
+    // packed entry for the key, or MISS
+    public long probe(final long key) {
+        final long bucket = key & this.bucketMask;
+        final ByteBuffer segment = this.segments[(int) (bucket / BUCKETS_PER_SEGMENT)];
+        final int offset = (int) (bucket % BUCKETS_PER_SEGMENT) * BUCKET_SIZE;
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+            final int entryOffset = offset + i * ENTRY_SIZE;
+            final long data = segment.getLong(entryOffset + 8);
+            if ((segment.getLong(entryOffset) ^ data) == key && data != MISS) {
+                return data;
+            }
+        }
+        return MISS;
+    }
+
+    // replaces the entry of the same position, else the shallowest entry, older searches counting as shallower
+    public void store(final long key, final int move, final int score, final int depth, final int bound) {
+        final long bucket = key & this.bucketMask;
+        final ByteBuffer segment = this.segments[(int) (bucket / BUCKETS_PER_SEGMENT)];
+        final int offset = (int) (bucket % BUCKETS_PER_SEGMENT) * BUCKET_SIZE;
+        final int currentAge = this.age;
+
+        int replaceOffset = offset;
+        int replaceValue = Integer.MAX_VALUE;
+        int storedMove = move;
+        for (int i = 0; i < ENTRIES_PER_BUCKET; i++) {
+            final int entryOffset = offset + i * ENTRY_SIZE;
+            final long data = segment.getLong(entryOffset + 8);
+            if ((segment.getLong(entryOffset) ^ data) == key && data != MISS) {
+                // keep the deeper result of the same search unless the new one is exact
+                if (depth < getDepth(data) && bound != EXACT && getAge(data) == currentAge) {
+                    return;
+                }
+                if (storedMove == 0) {
+                    storedMove = getMove(data);
+                }
+                replaceOffset = entryOffset;
+                break;
+            }
+            final int ageDistance = (currentAge - getAge(data)) & AGE_MASK;
+            final int value = data == MISS ? Integer.MIN_VALUE : getDepth(data) - 8 * ageDistance;
+            if (value < replaceValue) {
+                replaceValue = value;
+                replaceOffset = entryOffset;
+            }
+        }
+
+        final long data = pack(storedMove, score, Math.min(depth, 0xFF), bound, currentAge);
+        segment.putLong(replaceOffset, key ^ data);
+        segment.putLong(replaceOffset + 8, data);
+    }
+
+    // call once per root search so entries of earlier searches are replaced first
+    public void newSearch() {
+        this.age = (this.age + 1) & AGE_MASK;
+    }
+
+    public void clear() {
+        for (final ByteBuffer segment : this.segments) {
+            for (int i = 0; i < segment.capacity(); i += 8) {
+                segment.putLong(i, 0L);
+            }
+        }
+        this.age = 0;
+    }
+
+    public long getCapacity() {
+        return (this.bucketMask + 1) * ENTRIES_PER_BUCKET;
+    }
+
+    // permille of a sample of entries written by the current search
+    public int hashFull() {
+        final ByteBuffer segment = this.segments[0];
+        final int sampled = Math.min(1000, segment.capacity() / ENTRY_SIZE);
+        int used = 0;
+        for (int i = 0; i < sampled; i++) {
+            final long data = segment.getLong(i * ENTRY_SIZE + 8);
+            if (data != MISS && getAge(data) == this.age) {
+                used++;
+            }
+        }
+        return used * 1000 / sampled;
+    }
+}